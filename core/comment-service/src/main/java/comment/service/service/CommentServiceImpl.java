@@ -1,7 +1,5 @@
 package comment.service.service;
 
-import comment.service.feign.client.EventClient;
-import comment.service.feign.client.UserClient;
 import comment.service.mapper.CommentMapper;
 import comment.service.model.Comment;
 import comment.service.repository.CommentRepository;
@@ -12,6 +10,8 @@ import interaction.api.dto.user.UserShortDto;
 import interaction.api.enums.EventState;
 import interaction.api.exception.ConflictException;
 import interaction.api.exception.NotFoundException;
+import interaction.api.lookup.EventLookup;
+import interaction.api.lookup.UserLookup;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -34,8 +34,8 @@ import java.util.Objects;
 @Slf4j
 public class CommentServiceImpl implements CommentService {
     CommentRepository commentRepository;
-    UserClient userClient;
-    EventClient eventClient;
+    UserLookup userLookup;
+    EventLookup eventLookup;
     CommentMapper commentMapper;
 
     @Override
@@ -51,13 +51,13 @@ public class CommentServiceImpl implements CommentService {
     public CommentDto create(Long userId, Long eventId, NewCommentDto newCommentDto) {
         log.info("Создание комментария для события id: {}, пользователем id: {}", eventId, userId);
 
-        EventFullDto event = eventClient.getEvent(eventId);
+        EventFullDto event = eventLookup.getEvent(eventId);
 
         if (!EventState.PUBLISHED.equals(event.getState())) {
             throw new ConflictException(String.format("Событие с id= %d не опубликовано", eventId));
         }
 
-        UserShortDto user = userClient.getUserById(userId);
+        UserShortDto user = userLookup.getUserById(userId);
 
         Comment comment = commentMapper.toComment(newCommentDto);
         comment.setEvent(event.getId());
@@ -127,7 +127,7 @@ public class CommentServiceImpl implements CommentService {
                 userId);
         Comment comment = validateCommentForEvent(eventId, commentId);
 
-        UserShortDto user = userClient.getUserById(userId);
+        UserShortDto user = userLookup.getUserById(userId);
 
         if (!user.getId().equals(comment.getAuthorId())) {
             throw new ConflictException(String.format("Комментарий id= %d не был создан пользователем с id= %d",
@@ -141,7 +141,7 @@ public class CommentServiceImpl implements CommentService {
 
     private Comment validateCommentForEvent(Long eventId, Long commentId) {
         log.info("Валидация комментария с id: {} для события с id: {}", commentId, eventId);
-        EventFullDto event = eventClient.getEvent(eventId);
+        EventFullDto event = eventLookup.getEvent(eventId);
 
         Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> new NotFoundException(String.format("Комментарий id= %d не найден", commentId)));
@@ -0,0 +1,7 @@
+package event.service.category.service;
+
+/**
+ * Справочник категорий перечитан после локального изменения; рассылается остальным экземплярам.
+ */
+public class CategoriesChanged {
+}
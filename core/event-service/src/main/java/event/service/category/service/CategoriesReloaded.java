@@ -0,0 +1,8 @@
+package event.service.category.service;
+
+/**
+ * Снимок справочника категорий заменён снимком с другим содержимым. Публикуется внутри экземпляра
+ * при любом перечитывании, в том числе по оповещению от другого экземпляра; наружу не рассылается.
+ */
+public class CategoriesReloaded {
+}
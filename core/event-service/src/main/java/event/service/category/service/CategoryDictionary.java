@@ -0,0 +1,121 @@
+package event.service.category.service;
+
+import event.service.category.mapper.CategoryMapper;
+import event.service.category.model.Category;
+import event.service.category.repository.CategoryRepository;
+import interaction.api.dto.category.CategoryDto;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Справочник категорий в памяти. Хранит неизменяемый снимок таблицы, который целиком заменяется
+ * после каждого изменения категорий; чтения не обращаются к БД и не копируют данные.
+ * Объекты из снимка общие для всех запросов и не должны изменяться.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CategoryDictionary {
+    final CategoryRepository categoryRepository;
+    final CategoryMapper mapper;
+    final ApplicationEventPublisher eventPublisher;
+
+    volatile Snapshot snapshot;
+
+    public Optional<CategoryDto> get(Long id) {
+        return Optional.ofNullable(current().byId.get(id));
+    }
+
+    // -- Категория для связи с событием: id и имя из снимка, без запроса к БД
+    public Optional<Category> findEntity(Long id) {
+        return get(id).map(dto -> new Category(dto.getId(), dto.getName()));
+    }
+
+    public List<CategoryDto> page(int from, int size) {
+        List<CategoryDto> ordered = current().ordered;
+        if (from >= ordered.size()) {
+            return List.of();
+        }
+        return ordered.subList(from, Math.min(ordered.size(), from + size));
+    }
+
+    /**
+     * Перечитывает справочник после фиксации текущей транзакции и оповещает остальные экземпляры.
+     */
+    public void reloadAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reloadAndBroadcast();
+                }
+            });
+        } else {
+            reloadAndBroadcast();
+        }
+    }
+
+    // -- Страховка на случай потерянного оповещения от другого экземпляра.
+    // -- Перечитывания идут по очереди: иначе снимок, прочитанный раньше, мог бы заменить более свежий
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${event-service.category-dictionary.refresh-interval:PT5M}",
+            fixedDelayString = "${event-service.category-dictionary.refresh-interval:PT5M}")
+    public synchronized void reload() {
+        List<CategoryDto> ordered = categoryRepository.findAll(Sort.by("id")).stream()
+                .map(mapper::toCategoryDto)
+                .toList();
+        Map<Long, CategoryDto> byId = ordered.stream()
+                .collect(Collectors.toUnmodifiableMap(CategoryDto::getId, Function.identity()));
+
+        Snapshot previous = snapshot;
+        snapshot = new Snapshot(ordered, byId);
+        log.debug("Справочник категорий перечитан: {} записей", ordered.size());
+
+        // -- Названия категорий встроены в закэшированные карточки событий и страницы подборок
+        if (previous != null && !previous.ordered.equals(ordered)) {
+            eventPublisher.publishEvent(new CategoriesReloaded());
+        }
+    }
+
+    private void reloadAndBroadcast() {
+        reload();
+        eventPublisher.publishEvent(new CategoriesChanged());
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    reload();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    @RequiredArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static class Snapshot {
+        List<CategoryDto> ordered;
+        Map<Long, CategoryDto> byId;
+    }
+}
@@ -25,12 +25,15 @@ public class CategoryServiceImpl implements CategoryService {
     CategoryRepository categoryRepository;
     PublicService eventService;
     CategoryMapper mapper;
+    CategoryDictionary categoryDictionary;
 
     @Override
     @Transactional
     public CategoryDto createCategory(NewCategoryDto newCategoryDto) {
         validateNameExist(newCategoryDto.getName());
-        return mapper.toCategoryDto(categoryRepository.save(mapper.toCategory(newCategoryDto)));
+        Category category = categoryRepository.save(mapper.toCategory(newCategoryDto));
+        categoryDictionary.reloadAfterCommit();
+        return mapper.toCategoryDto(category);
     }
 
     @Override
@@ -39,6 +42,7 @@ public class CategoryServiceImpl implements CategoryService {
         List<EventModel> events = eventService.findAllByCategoryId(catId);
         if (events.isEmpty()) {
             categoryRepository.deleteById(catId);
+            categoryDictionary.reloadAfterCommit();
         } else {
             throw new ConflictException("Категория не может быть удалена пока содержит события");
         }
@@ -53,31 +57,26 @@ public class CategoryServiceImpl implements CategoryService {
             validateNameExist(categoryDto.getName());
         }
         mapper.updateCategoryFromDto(categoryDto, category);
+        categoryDictionary.reloadAfterCommit();
         return mapper.toCategoryDto(category);
     }
 
     @Override
     public List<CategoryDto> getCategories(Integer from, Integer size) {
-        return categoryRepository.findAll().stream()
-                .map(mapper::toCategoryDto)
-                .skip(from)
-                .limit(size)
-                .toList();
+        return categoryDictionary.page(from, size);
     }
 
     @Override
     public CategoryDto getCategory(Long catId) {
-        return mapper.toCategoryDto(
-                categoryRepository.findById(catId)
-                        .orElseThrow(() -> new NotFoundException("Категория с id " + catId + " не найдена")));
+        return categoryDictionary.get(catId)
+                .orElseThrow(() -> new NotFoundException("Категория с id " + catId + " не найдена"));
     }
 
     @Override
     public Optional<Category> findById(Long id) {
-        return categoryRepository.findById(id);
+        return categoryDictionary.findEntity(id);
     }
 
-
     private void validateNameExist(String name) {
         if (categoryRepository.existsByName(name)) {
             throw new ConflictException("Название категории уже существует");
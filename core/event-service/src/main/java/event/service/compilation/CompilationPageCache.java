@@ -0,0 +1,105 @@
+package event.service.compilation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import event.service.category.service.CategoriesReloaded;
+import event.service.compilation.dto.CompilationDto;
+import event.service.events.cache.EventDetailsEvicted;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Готовые страницы публичного списка подборок. Подборки меняет только администратор,
+ * поэтому любое изменение сбрасывает все страницы сразу. Сбросы рассылаются остальным
+ * экземплярам через EventCacheInvalidationChannel; ttl ограничивает устаревание, если канал выключен.
+ */
+@Component
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CompilationPageCache {
+    Cache<PageKey, List<CompilationDto>> pages;
+    // -- Время сборки страницы при промахе; время ответа при попадании видно в http.server.requests
+    Timer loadTimer;
+    ApplicationEventPublisher eventPublisher;
+
+    public CompilationPageCache(MeterRegistry meterRegistry,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${event-service.cache.compilation-pages.maximum-size:1000}") long maximumSize,
+                                @Value("${event-service.cache.compilation-pages.ttl:PT5M}") Duration ttl) {
+        this.eventPublisher = eventPublisher;
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.loadTimer = Timer.builder("compilation.pages.load")
+                .description("Сборка страницы подборок при промахе кэша")
+                .register(meterRegistry);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "compilation.pages");
+    }
+
+    public List<CompilationDto> get(Boolean pinned, int from, int size, Supplier<List<CompilationDto>> loader) {
+        return pages.get(new PageKey(pinned, from, size), key -> List.copyOf(loadTimer.record(loader)));
+    }
+
+    public void invalidateAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateAndBroadcast();
+                }
+            });
+        } else {
+            invalidateAndBroadcast();
+        }
+    }
+
+    // -- Страницы содержат краткие карточки событий, поэтому изменение события тоже сбрасывает кэш
+    @EventListener
+    public void onEventEvicted(EventDetailsEvicted evicted) {
+        invalidateLocal();
+    }
+
+    // -- Краткие карточки содержат название категории
+    @EventListener
+    public void onCategoriesReloaded(CategoriesReloaded reloaded) {
+        invalidateLocal();
+    }
+
+    public void invalidateLocal() {
+        pages.invalidateAll();
+        log.debug("Кэш страниц подборок сброшен");
+    }
+
+    private void invalidateAndBroadcast() {
+        invalidateLocal();
+        eventPublisher.publishEvent(new CompilationsChanged());
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static class PageKey {
+        Boolean pinned;
+        int from;
+        int size;
+    }
+}
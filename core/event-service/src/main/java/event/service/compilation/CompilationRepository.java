@@ -5,10 +5,15 @@ import event.service.compilation.model.Compilation;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 
 @Repository
 public interface CompilationRepository extends JpaRepository<Compilation, Long>,
@@ -16,4 +21,29 @@ public interface CompilationRepository extends JpaRepository<Compilation, Long>,
     @Override
     @NonNull
     Page<Compilation> findAll(@NonNull Predicate predicate, @NonNull Pageable pageable);
+
+    @Query("SELECT c.id FROM Compilation AS c WHERE (:pinned IS NULL OR c.pinned = :pinned) ORDER BY c.id")
+    List<Long> findIds(@Param("pinned") Boolean pinned, Pageable pageable);
+
+    // -- Подборки вместе с событиями, их категориями и локациями одним запросом
+    @Query("""
+                SELECT DISTINCT c
+                FROM Compilation AS c
+                LEFT JOIN FETCH c.events AS e
+                LEFT JOIN FETCH e.category
+                LEFT JOIN FETCH e.location
+                WHERE c.id IN :ids
+                ORDER BY c.id
+            """)
+    List<Compilation> findAllWithEventsByIdIn(@Param("ids") List<Long> ids);
+
+    @Query("""
+                SELECT c
+                FROM Compilation AS c
+                LEFT JOIN FETCH c.events AS e
+                LEFT JOIN FETCH e.category
+                LEFT JOIN FETCH e.location
+                WHERE c.id = :id
+            """)
+    Optional<Compilation> findWithEventsById(@Param("id") Long id);
 }
@@ -0,0 +1,7 @@
+package event.service.compilation;
+
+/**
+ * Страницы подборок сброшены после локального изменения; рассылается остальным экземплярам.
+ */
+public class CompilationsChanged {
+}
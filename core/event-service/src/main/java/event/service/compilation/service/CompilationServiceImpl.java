@@ -1,31 +1,30 @@
 package event.service.compilation.service;
 
-import com.querydsl.core.types.Predicate;
 import interaction.api.exception.NotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import event.service.compilation.CompilationMapper;
+import event.service.compilation.CompilationPageCache;
 import event.service.compilation.CompilationRepository;
 import event.service.compilation.dto.NewCompilationDto;
 import event.service.compilation.dto.CompilationDto;
 import event.service.compilation.dto.CompilationUpdateDto;
 import event.service.compilation.dto.CompilationsRequest;
 import event.service.compilation.model.Compilation;
-import event.service.compilation.model.QCompilation;
 import event.service.compilation.pagination.PaginationOffset;
 import event.service.events.model.EventModel;
+import event.service.events.pagination.OffsetPageRequest;
 import event.service.events.services.impls.PrivateServiceImpl;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
 
 @Slf4j
 @Service
@@ -34,12 +33,13 @@ public class CompilationServiceImpl implements CompilationService {
     private final CompilationRepository compilationRepository;
     private final CompilationMapper compilationMapper;
     private final PrivateServiceImpl eventService;
+    private final CompilationPageCache compilationPageCache;
+    private final TransactionTemplate transactionTemplate;
 
     @Transactional
     @Override
     public CompilationDto addCompilation(NewCompilationDto newCompilationDto) {
-        CompilationMapper.MapperContext context = new CompilationMapper.MapperContext(eventService);
-        Compilation compilation = compilationMapper.toEntity(newCompilationDto, context);
+        Compilation compilation = compilationMapper.toEntity(newCompilationDto);
 
         if (newCompilationDto.getPinned() == null) {
             compilation.setPinned(false);
@@ -47,13 +47,9 @@ public class CompilationServiceImpl implements CompilationService {
             compilation.setPinned(newCompilationDto.getPinned());
         }
 
-        if (newCompilationDto.getEvents() != null && !newCompilationDto.getEvents().isEmpty()) {
-            Set<EventModel> events = new HashSet<>(eventService.findAllById(new ArrayList<>(newCompilationDto.getEvents())));
-            compilation.setEvents(events);
-        } else {
-            compilation.setEvents(new HashSet<>());
-        }
+        compilation.setEvents(loadEvents(newCompilationDto.getEvents()));
         Compilation savedCompilation = compilationRepository.save(compilation);
+        compilationPageCache.invalidateAfterCommit();
         log.info("Создаем подборку");
         return compilationMapper.toDto(savedCompilation);
     }
@@ -66,6 +62,7 @@ public class CompilationServiceImpl implements CompilationService {
         }
         log.info("Удаляем подборку id={}", compId);
         compilationRepository.deleteById(compId);
+        compilationPageCache.invalidateAfterCommit();
     }
 
     @Transactional
@@ -80,9 +77,9 @@ public class CompilationServiceImpl implements CompilationService {
             compilation.setPinned(updateDto.getPinned());
         }
         if (updateDto.getEvents() != null) {
-            Set<EventModel> events = new HashSet<>(eventService.findAllById(new ArrayList<>(updateDto.getEvents())));
-            compilation.setEvents(events);
+            compilation.setEvents(loadEvents(updateDto.getEvents()));
         }
+        compilationPageCache.invalidateAfterCommit();
         log.info("Обновляем подборку id={}", compId);
         return compilationMapper.toDto(compilation);
     }
@@ -90,25 +87,40 @@ public class CompilationServiceImpl implements CompilationService {
     @Transactional(readOnly = true)
     @Override
     public CompilationDto getCompilationById(Long compId) {
-        Compilation compilation = compilationRepository.findById(compId)
+        Compilation compilation = compilationRepository.findWithEventsById(compId)
                 .orElseThrow(() -> new NotFoundException("Событие с id " + compId + " не найдено"));
         return compilationMapper.toDto(compilation);
     }
 
-    @Transactional(readOnly = true)
+    // -- Страница собирается двумя запросами: id подборок, затем подборки с событиями
     @Override
     public List<CompilationDto> getCompilations(CompilationsRequest request, PaginationOffset pagination) {
-        QCompilation qCompilation = QCompilation.compilation;
-        Predicate predicate = null;
-        if (request.getPinned() != null) {
-            predicate = qCompilation.pinned.eq(request.getPinned());
-        }
         int from = (pagination.getFrom() != null) ? pagination.getFrom() : 0;
         int size = (pagination.getSize() != null) ? pagination.getSize() : 10;
-        Pageable pageable = PageRequest.of(from / size, size);
-        Page<Compilation> page = (predicate != null)
-                ? compilationRepository.findAll(predicate, pageable)
-                : compilationRepository.findAll(pageable);
-        return compilationMapper.toDtoList(page.getContent());
+        return compilationPageCache.get(request.getPinned(), from, size,
+                () -> transactionTemplate.execute(status -> loadCompilations(request.getPinned(), from, size)));
+    }
+
+    private List<CompilationDto> loadCompilations(Boolean pinned, int from, int size) {
+        List<Long> ids = compilationRepository.findIds(pinned, OffsetPageRequest.of(from, size));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return compilationMapper.toDtoList(compilationRepository.findAllWithEventsByIdIn(ids));
+    }
+
+    // -- Все события подборки читаются одним запросом; отсутствующие id перечисляются в одной ошибке
+    private Set<EventModel> loadEvents(Set<Long> eventIds) {
+        if (eventIds == null || eventIds.isEmpty()) {
+            return new HashSet<>();
+        }
+
+        Set<EventModel> events = new HashSet<>(eventService.findAllById(new ArrayList<>(eventIds)));
+        if (events.size() < eventIds.size()) {
+            Set<Long> missing = new TreeSet<>(eventIds);
+            events.forEach(event -> missing.remove(event.getId()));
+            throw new NotFoundException("События с id " + missing + " не найдены");
+        }
+        return events;
     }
 }
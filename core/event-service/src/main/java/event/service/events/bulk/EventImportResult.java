@@ -0,0 +1,29 @@
+package event.service.events.bulk;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Результат импорта одной строки: id созданного события либо текст ошибки.
+ * line — номер строки NDJSON или элемента массива, начиная с 1.
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class EventImportResult {
+    long line;
+    Long id;
+    String error;
+
+    public static EventImportResult created(long line, Long id) {
+        return new EventImportResult(line, id, null);
+    }
+
+    public static EventImportResult failed(long line, String error) {
+        return new EventImportResult(line, null, error);
+    }
+}
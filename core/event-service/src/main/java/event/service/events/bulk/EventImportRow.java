@@ -0,0 +1,27 @@
+package event.service.events.bulk;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import interaction.api.dto.event.NewEventDto;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Строка массового импорта: поля NewEventDto плюс id инициатора.
+ */
+@Data
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class EventImportRow {
+    @NotNull(message = "Поле initiator не может быть пустым")
+    @Positive(message = "Поле initiator должно быть положительным")
+    Long initiator;
+
+    @Valid
+    @JsonUnwrapped
+    NewEventDto event = new NewEventDto();
+}
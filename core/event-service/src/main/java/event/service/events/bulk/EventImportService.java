@@ -0,0 +1,280 @@
+package event.service.events.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import event.service.category.model.Category;
+import event.service.category.service.CategoryDictionary;
+import event.service.events.mapper.EventMapper;
+import event.service.events.model.EventModel;
+import event.service.location.Location;
+import event.service.location.LocationMapper;
+import event.service.outbox.EventLifecycleOutbox;
+import feign.FeignException;
+import interaction.api.dto.user.UserDto;
+import interaction.api.lookup.UserLookup;
+import io.grpc.StatusRuntimeException;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Массовый импорт событий из NDJSON или JSON-массива.
+ * Строки обрабатываются пачками: пользователи проверяются одним запросом к user-service на пачку,
+ * категории — по справочнику в памяти, события и локации вставляются в одной транзакции JDBC-пакетами.
+ * Результат по каждой строке пишется в ответ сразу после обработки её пачки.
+ */
+@Service
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class EventImportService {
+    ObjectMapper objectMapper;
+    Validator validator;
+    UserLookup userLookup;
+    CategoryDictionary categoryDictionary;
+    EventMapper eventMapper;
+    LocationMapper locationMapper;
+    EntityManager entityManager;
+    TransactionTemplate transactionTemplate;
+    EventLifecycleOutbox eventLifecycleOutbox;
+    int chunkSize;
+
+    public EventImportService(ObjectMapper objectMapper,
+                              Validator validator,
+                              UserLookup userLookup,
+                              CategoryDictionary categoryDictionary,
+                              EventMapper eventMapper,
+                              LocationMapper locationMapper,
+                              EntityManager entityManager,
+                              TransactionTemplate transactionTemplate,
+                              EventLifecycleOutbox eventLifecycleOutbox,
+                              @Value("${event-service.import.chunk-size:500}") int chunkSize) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.userLookup = userLookup;
+        this.categoryDictionary = categoryDictionary;
+        this.eventMapper = eventMapper;
+        this.locationMapper = locationMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.eventLifecycleOutbox = eventLifecycleOutbox;
+        this.chunkSize = chunkSize;
+    }
+
+    public void importNdjson(InputStream in, OutputStream out) throws IOException {
+        ImportRun run = new ImportRun(out);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        // -- Каждая строка разбирается отдельно, поэтому ошибка в одной не прерывает импорт
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                run.add(lineNumber, objectMapper.readValue(line, EventImportRow.class));
+            } catch (JsonProcessingException e) {
+                run.fail(lineNumber, "Некорректный JSON: " + e.getOriginalMessage());
+            }
+        }
+        run.finish();
+    }
+
+    public void importArray(InputStream in, OutputStream out) throws IOException {
+        ImportRun run = new ImportRun(out);
+        ObjectReader reader = objectMapper.readerFor(EventImportRow.class);
+
+        long index = 0;
+        try (MappingIterator<EventImportRow> rows = reader.readValues(in)) {
+            while (rows.hasNextValue()) {
+                index++;
+                try {
+                    run.add(index, rows.nextValue());
+                } catch (RuntimeJsonMappingException e) {
+                    run.fail(index, "Некорректный элемент: " + e.getMessage());
+                }
+            }
+        } catch (JsonProcessingException e) {
+            // -- Синтаксическая ошибка массива: дальше разобрать нельзя, уже принятые строки сохраняются
+            run.fail(index + 1, "Некорректный JSON, импорт остановлен: " + e.getOriginalMessage());
+        }
+        run.finish();
+    }
+
+    private List<EventImportResult> importChunk(List<PendingRow> chunk, Set<Long> knownUsers, Set<Long> missingUsers) {
+        EventImportResult[] results = new EventImportResult[chunk.size()];
+        List<Integer> valid = new ArrayList<>();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            Set<ConstraintViolation<EventImportRow>> violations = validator.validate(chunk.get(i).row);
+            if (violations.isEmpty()) {
+                valid.add(i);
+            } else {
+                results[i] = EventImportResult.failed(chunk.get(i).line, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            }
+        }
+
+        String usersError = resolveUsers(chunk, valid, knownUsers, missingUsers);
+
+        List<Integer> accepted = new ArrayList<>();
+        List<EventModel> events = new ArrayList<>();
+        for (int i : valid) {
+            PendingRow pending = chunk.get(i);
+            Long userId = pending.row.getInitiator();
+            Optional<Category> category = categoryDictionary.findEntity(pending.row.getEvent().getCategory());
+
+            if (usersError != null && !knownUsers.contains(userId) && !missingUsers.contains(userId)) {
+                results[i] = EventImportResult.failed(pending.line, usersError);
+            } else if (missingUsers.contains(userId)) {
+                results[i] = EventImportResult.failed(pending.line,
+                        String.format("Пользователь с id %d не найден", userId));
+            } else if (category.isEmpty()) {
+                results[i] = EventImportResult.failed(pending.line,
+                        String.format("Категория c id= %d не найдена", pending.row.getEvent().getCategory()));
+            } else {
+                Location location = locationMapper.toEntity(pending.row.getEvent().getLocationDto());
+                events.add(eventMapper.toEntity(pending.row.getEvent(), category.get(), userId, location));
+                accepted.add(i);
+            }
+        }
+
+        if (!events.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> persist(events));
+                for (int k = 0; k < accepted.size(); k++) {
+                    int i = accepted.get(k);
+                    results[i] = EventImportResult.created(chunk.get(i).line, events.get(k).getId());
+                }
+            } catch (RuntimeException e) {
+                // -- Текст исключения содержит SQL и имена ограничений, поэтому клиенту уходит общее сообщение
+                log.warn("Пачка импорта из {} событий (строки {}-{}) не сохранена", events.size(),
+                        chunk.get(accepted.get(0)).line, chunk.get(accepted.get(accepted.size() - 1)).line, e);
+                for (int i : accepted) {
+                    results[i] = EventImportResult.failed(chunk.get(i).line,
+                            "Ошибка сохранения пачки, подробности в журнале сервиса");
+                }
+            }
+        }
+        return List.of(results);
+    }
+
+    // -- Возвращает текст ошибки, если user-service недоступен; найденные и отсутствующие id запоминаются на весь импорт
+    private String resolveUsers(List<PendingRow> chunk, List<Integer> valid, Set<Long> knownUsers, Set<Long> missingUsers) {
+        Set<Long> unresolved = new LinkedHashSet<>();
+        for (int i : valid) {
+            Long userId = chunk.get(i).row.getInitiator();
+            if (!knownUsers.contains(userId) && !missingUsers.contains(userId)) {
+                unresolved.add(userId);
+            }
+        }
+        if (unresolved.isEmpty()) {
+            return null;
+        }
+
+        try {
+            Set<Long> found = userLookup.getUsersByIds(new ArrayList<>(unresolved)).stream()
+                    .map(UserDto::getId)
+                    .collect(Collectors.toSet());
+            for (Long userId : unresolved) {
+                (found.contains(userId) ? knownUsers : missingUsers).add(userId);
+            }
+            return null;
+        } catch (FeignException | StatusRuntimeException e) {
+            log.error("Ошибка при проверке {} пользователей для импорта: {}", unresolved.size(), e.getMessage(), e);
+            return "user-service недоступен";
+        }
+    }
+
+    private void persist(List<EventModel> events) {
+        for (EventModel event : events) {
+            entityManager.persist(event.getLocation());
+            entityManager.persist(event);
+            eventLifecycleOutbox.stateChanged(event);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @RequiredArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static class PendingRow {
+        long line;
+        EventImportRow row;
+    }
+
+    /**
+     * Состояние одного импорта: текущая пачка, известные пользователи и поток ответа.
+     */
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private class ImportRun {
+        OutputStream out;
+        List<PendingRow> chunk = new ArrayList<>();
+        List<EventImportResult> failed = new ArrayList<>();
+        Set<Long> knownUsers = new HashSet<>();
+        Set<Long> missingUsers = new HashSet<>();
+
+        ImportRun(OutputStream out) {
+            this.out = out;
+        }
+
+        void add(long line, EventImportRow row) throws IOException {
+            chunk.add(new PendingRow(line, row));
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void fail(long line, String error) {
+            failed.add(EventImportResult.failed(line, error));
+        }
+
+        void finish() throws IOException {
+            flush();
+        }
+
+        private void flush() throws IOException {
+            List<EventImportResult> results = new ArrayList<>(failed);
+            failed.clear();
+            if (!chunk.isEmpty()) {
+                results.addAll(importChunk(chunk, knownUsers, missingUsers));
+                chunk.clear();
+            }
+
+            results.sort(Comparator.comparingLong(EventImportResult::getLine));
+            for (EventImportResult result : results) {
+                out.write(objectMapper.writeValueAsBytes(result));
+                out.write('\n');
+            }
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package event.service.events.cache;
+
+import event.service.category.service.CategoriesChanged;
+import event.service.category.service.CategoryDictionary;
+import event.service.compilation.CompilationPageCache;
+import event.service.compilation.CompilationsChanged;
+import lombok.AccessLevel;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Рассылка сбросов кэша карточек, страниц подборок и справочника категорий между экземплярами
+ * event-service через Kafka.
+ * У каждого экземпляра своя группа потребителей, поэтому сообщение получают все экземпляры.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "event-service.cache.invalidation", name = "enabled", havingValue = "true")
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@SuppressWarnings("unused")
+public class EventCacheInvalidationChannel {
+    // -- Заголовок с id экземпляра-отправителя: свой сброс уже применён локально
+    private static final String ORIGIN_HEADER = "event-cache-origin";
+    // -- Значение сообщения: id события либо маркер справочника категорий или страниц подборок
+    private static final String CATEGORIES = "categories";
+    private static final String COMPILATIONS = "compilations";
+
+    KafkaTemplate<String, String> kafkaTemplate;
+    EventDetailsCache eventDetailsCache;
+    CategoryDictionary categoryDictionary;
+    CompilationPageCache compilationPageCache;
+    String topic;
+    String instanceId;
+
+    public EventCacheInvalidationChannel(KafkaTemplate<String, String> kafkaTemplate,
+                                         EventDetailsCache eventDetailsCache,
+                                         CategoryDictionary categoryDictionary,
+                                         CompilationPageCache compilationPageCache,
+                                         @Value("${event-service.cache.invalidation.topic}") String topic,
+                                         @Value("${event-service.cache.invalidation.instance-id}") String instanceId) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.eventDetailsCache = eventDetailsCache;
+        this.categoryDictionary = categoryDictionary;
+        this.compilationPageCache = compilationPageCache;
+        this.topic = topic;
+        this.instanceId = instanceId;
+    }
+
+    @EventListener
+    public void onEvicted(EventDetailsEvicted evicted) {
+        send(String.valueOf(evicted.getEventId()));
+    }
+
+    @EventListener
+    public void onCategoriesChanged(CategoriesChanged changed) {
+        send(CATEGORIES);
+    }
+
+    @EventListener
+    public void onCompilationsChanged(CompilationsChanged changed) {
+        send(COMPILATIONS);
+    }
+
+    @KafkaListener(topics = "${event-service.cache.invalidation.topic}",
+            groupId = "event-service-cache-${event-service.cache.invalidation.instance-id}",
+            clientIdPrefix = "event-service-cache-invalidation",
+            properties = {
+                    "value.deserializer=org.apache.kafka.common.serialization.StringDeserializer",
+                    "auto.offset.reset=latest"
+            })
+    public void onRemoteEviction(String value,
+                                 @Header(name = ORIGIN_HEADER, required = false) byte[] origin) {
+        if (origin != null && instanceId.equals(new String(origin, StandardCharsets.UTF_8))) {
+            return;
+        }
+
+        if (CATEGORIES.equals(value)) {
+            // -- Карточки и страницы подборок сбрасываются по CategoriesReloaded от справочника
+            categoryDictionary.reload();
+        } else if (COMPILATIONS.equals(value)) {
+            compilationPageCache.invalidateLocal();
+        } else {
+            eventDetailsCache.evictLocal(Long.valueOf(value));
+            // -- Страницы подборок содержат карточки событий, как и при локальном сбросе
+            compilationPageCache.invalidateLocal();
+        }
+    }
+
+    private void send(String value) {
+        ProducerRecord<String, String> record = new ProducerRecord<>(topic, value, value);
+        record.headers().add(ORIGIN_HEADER, instanceId.getBytes(StandardCharsets.UTF_8));
+
+        kafkaTemplate.send(record).whenComplete((result, exception) -> {
+            if (exception != null) {
+                log.warn("Не удалось разослать сброс кэша '{}': другие экземпляры обновятся по TTL",
+                        value, exception);
+            }
+        });
+    }
+}
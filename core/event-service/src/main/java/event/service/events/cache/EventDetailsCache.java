@@ -0,0 +1,108 @@
+package event.service.events.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import event.service.category.service.CategoriesReloaded;
+import interaction.api.dto.event.EventFullDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Кэш карточек опубликованных событий. Неизменяемая часть карточки хранится до изменения события
+ * или справочника категорий, число подтверждённых заявок подмешивается из отдельного кэша
+ * с коротким TTL, а рейтинг — из RatingCache, который сам держит и обновляет значения в фоне.
+ * Наружу всегда отдаётся копия, поэтому вызывающий код может менять её свободно.
+ */
+@Component
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class EventDetailsCache {
+    Cache<Long, EventFullDto> details;
+    Cache<Long, Long> confirmedRequests;
+    ApplicationEventPublisher eventPublisher;
+
+    public EventDetailsCache(MeterRegistry meterRegistry,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${event-service.cache.event-details.maximum-size:10000}") long maximumSize,
+                             @Value("${event-service.cache.event-details.ttl:PT10M}") Duration ttl,
+                             @Value("${event-service.cache.event-details.overlay-ttl:PT5S}") Duration overlayTtl) {
+        this.eventPublisher = eventPublisher;
+        this.details = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.confirmedRequests = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(overlayTtl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, details, "event.details");
+        CaffeineCacheMetrics.monitor(meterRegistry, confirmedRequests, "event.details.confirmed");
+    }
+
+    // -- Исключение загрузчика (например, NotFoundException) пробрасывается и в кэш не попадает
+    public EventFullDto get(Long eventId,
+                            Function<Long, EventFullDto> detailsLoader,
+                            Function<Long, Double> ratingLoader,
+                            Function<Long, Long> confirmedRequestsLoader) {
+        EventFullDto cached = details.get(eventId, detailsLoader);
+
+        return cached.toBuilder()
+                .rating(ratingLoader.apply(eventId))
+                .confirmedRequests(confirmedRequests.get(eventId, confirmedRequestsLoader))
+                .build();
+    }
+
+    /**
+     * Сбрасывает карточку после фиксации текущей транзакции, чтобы параллельное чтение не вернуло
+     * в кэш старое состояние, и оповещает остальные экземпляры сервиса.
+     */
+    public void evictAfterCommit(Long eventId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictAndBroadcast(eventId);
+                }
+            });
+        } else {
+            evictAndBroadcast(eventId);
+        }
+    }
+
+    public void evictLocal(Long eventId) {
+        details.invalidate(eventId);
+        confirmedRequests.invalidate(eventId);
+        log.debug("Карточка события {} удалена из кэша", eventId);
+    }
+
+    // -- Карточка содержит название категории: после её изменения сбрасываются все карточки
+    @EventListener
+    public void onCategoriesReloaded(CategoriesReloaded reloaded) {
+        evictAllLocal();
+    }
+
+    public void evictAllLocal() {
+        details.invalidateAll();
+        log.debug("Кэш карточек событий сброшен");
+    }
+
+    private void evictAndBroadcast(Long eventId) {
+        evictLocal(eventId);
+        eventPublisher.publishEvent(new EventDetailsEvicted(eventId));
+    }
+}
@@ -0,0 +1,16 @@
+package event.service.events.cache;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Карточка события сброшена из локального кэша; рассылается остальным экземплярам, если канал включён.
+ */
+@Getter
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class EventDetailsEvicted {
+    Long eventId;
+}
@@ -0,0 +1,54 @@
+package event.service.events.confirmed;
+
+import event.service.events.repository.EventRepository;
+import interaction.api.dto.request.ConfirmedRequestsChangedDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Обновляет денормализованный счётчик confirmed_requests по сообщениям request-service.
+ */
+@Component
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@SuppressWarnings("unused")
+public class ConfirmedRequestsListener {
+    EventRepository eventRepository;
+    Timer lagTimer;
+    Counter staleCounter;
+
+    public ConfirmedRequestsListener(EventRepository eventRepository, MeterRegistry meterRegistry) {
+        this.eventRepository = eventRepository;
+        this.lagTimer = Timer.builder("event.confirmed_requests.lag")
+                .description("Задержка между подсчётом в request-service и применением в event-service")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.staleCounter = Counter.builder("event.confirmed_requests.stale")
+                .description("Сообщения, отброшенные как устаревшие или относящиеся к неизвестному событию")
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(topics = "${spring.kafka.consumer.topic.confirmed-requests}")
+    public void onConfirmedRequestsChanged(ConfirmedRequestsChangedDto message) {
+        log.debug("Получено число подтверждённых заявок: {}", message);
+
+        int updated = eventRepository.updateConfirmedRequests(
+                message.getEventId(), message.getConfirmedRequests(), message.getCountedAt());
+        lagTimer.record(Duration.between(message.getCountedAt(), Instant.now()));
+
+        if (updated == 0) {
+            staleCounter.increment();
+            log.debug("Сообщение для события {} не применено: есть более свежее значение или события нет",
+                    message.getEventId());
+        }
+    }
+}
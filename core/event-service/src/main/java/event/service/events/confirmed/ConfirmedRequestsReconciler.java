@@ -0,0 +1,82 @@
+package event.service.events.confirmed;
+
+import event.service.events.repository.EventRepository;
+import feign.FeignException;
+import interaction.api.dto.request.ConfirmedRequestsCountsDto;
+import interaction.api.lookup.RequestLookup;
+import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Периодическая сверка confirmed_requests с request-service. Исправляет расхождения,
+ * если сообщение было потеряно или request-service не смог его отправить.
+ */
+@Component
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@SuppressWarnings("unused")
+public class ConfirmedRequestsReconciler {
+    EventRepository eventRepository;
+    RequestLookup requestLookup;
+    Counter reconciledCounter;
+    int batchSize;
+
+    public ConfirmedRequestsReconciler(EventRepository eventRepository,
+                                       RequestLookup requestLookup,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${event-service.confirmed-requests.reconcile-batch-size:500}") int batchSize) {
+        this.eventRepository = eventRepository;
+        this.requestLookup = requestLookup;
+        this.batchSize = batchSize;
+        this.reconciledCounter = Counter.builder("event.confirmed_requests.reconciled")
+                .description("Счётчики confirmed_requests, исправленные сверкой")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${event-service.confirmed-requests.reconcile-initial-delay:PT1M}",
+            fixedDelayString = "${event-service.confirmed-requests.reconcile-interval:PT10M}")
+    public void reconcile() {
+        log.debug("Запуск сверки confirmed_requests");
+        long afterId = 0;
+        int corrected = 0;
+
+        while (true) {
+            List<Long> eventIds = eventRepository.findIdsAfter(afterId, PageRequest.of(0, batchSize));
+            if (eventIds.isEmpty()) {
+                break;
+            }
+
+            // -- countedAt берётся по часам request-service, как и в сообщениях Kafka:
+            // -- значение, посчитанное позже сверки, ею не перезаписывается
+            ConfirmedRequestsCountsDto counts;
+            try {
+                counts = requestLookup.countConfirmedRequests(eventIds);
+            } catch (FeignException | StatusRuntimeException e) {
+                log.warn("Сверка confirmed_requests прервана: request-service недоступен", e);
+                return;
+            }
+
+            Long[] ids = eventIds.toArray(Long[]::new);
+            Long[] confirmed = eventIds.stream()
+                    .map(eventId -> counts.getCounts().getOrDefault(eventId, 0L))
+                    .toArray(Long[]::new);
+            corrected += eventRepository.reconcileConfirmedRequests(ids, confirmed, counts.getCountedAt());
+            afterId = eventIds.getLast();
+        }
+
+        if (corrected > 0) {
+            reconciledCounter.increment(corrected);
+            log.warn("Сверка исправила confirmed_requests у {} событий", corrected);
+        }
+    }
+}
@@ -4,12 +4,14 @@ import interaction.api.dto.event.EventFullDto;
 import interaction.api.dto.event.UpdateEventAdminRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import event.service.events.services.AdminService;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -42,7 +44,7 @@ public class AdminController {
     }
 
     @GetMapping
-    public List<EventFullDto> getEvents(@RequestParam(required = false) List<Long> users,
+    public ResponseEntity<List<EventFullDto>> getEvents(@RequestParam(required = false) List<Long> users,
                                         @RequestParam(required = false) List<String> states,
                                         @RequestParam(required = false) List<Long> categories,
 
@@ -54,10 +56,12 @@ public class AdminController {
                                         @DateTimeFormat(pattern = DATE_TIME_FORMAT)
                                         LocalDateTime rangeEnd,
 
-                                        @RequestParam(defaultValue = "0") Integer from,
-                                        @RequestParam(defaultValue = "10") Integer size) {
+                                        @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                        @RequestParam(defaultValue = "10") @Positive Integer size,
+                                        @RequestParam(required = false) String cursor) {
         log.info("Поступил запрос на обновление события для админа");
-        return adminService.getEventsWithAdminFilters(users, states, categories, rangeStart, rangeEnd, from, size);
+        return adminService.getEventsWithAdminFilters(users, states, categories, rangeStart, rangeEnd, from, size,
+                cursor).toResponseEntity();
     }
 
     @GetMapping("/{eventId}")
@@ -0,0 +1,35 @@
+package event.service.events.controllers;
+
+import event.service.events.services.AdminService;
+import interaction.api.grpc.CoreProtoMapper;
+import interaction.api.grpc.GrpcErrors;
+import io.grpc.stub.StreamObserver;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.server.service.GrpcService;
+import ru.practicum.grpc.ewm.core.lookup.EventLookupGrpc;
+import ru.practicum.grpc.ewm.core.message.EventFullProto;
+import ru.practicum.grpc.ewm.core.message.EventIdProto;
+
+// -- gRPC-вариант GET /admin/events/{eventId} для внутренних вызовов из request-service и comment-service
+@GrpcService
+@RequiredArgsConstructor
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@SuppressWarnings("unused")
+public class EventLookupGrpcController extends EventLookupGrpc.EventLookupImplBase {
+    AdminService adminService;
+
+    @Override
+    public void getEvent(EventIdProto request, StreamObserver<EventFullProto> responseObserver) {
+        try {
+            responseObserver.onNext(CoreProtoMapper.toProto(adminService.getEventById(request.getEventId())));
+            responseObserver.onCompleted();
+        } catch (RuntimeException e) {
+            log.warn("Ошибка gRPC-запроса события id {}: {}", request.getEventId(), e.getMessage());
+            responseObserver.onError(GrpcErrors.toStatus(e));
+        }
+    }
+}
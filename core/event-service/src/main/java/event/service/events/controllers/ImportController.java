@@ -0,0 +1,47 @@
+package event.service.events.controllers;
+
+import event.service.events.bulk.EventImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/admin/events/import")
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@SuppressWarnings("unused")
+public class ImportController {
+    EventImportService eventImportService;
+
+    // -- Тело — NDJSON (по событию на строку) или JSON-массив; ответ — NDJSON с результатом по каждой строке.
+    // -- Импорт длится не дольше spring.mvc.async.request-timeout, после него поток ответа обрывается
+    @PostMapping(consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importNdjson(HttpServletRequest request) throws IOException {
+        log.info("Получен запрос на массовый импорт событий в формате NDJSON");
+        InputStream body = request.getInputStream();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> eventImportService.importNdjson(body, out));
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importArray(HttpServletRequest request) throws IOException {
+        log.info("Получен запрос на массовый импорт событий в формате JSON-массива");
+        InputStream body = request.getInputStream();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> eventImportService.importArray(body, out));
+    }
+}
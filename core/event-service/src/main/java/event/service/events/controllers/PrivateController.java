@@ -16,6 +16,7 @@ import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import event.service.events.services.PrivateService;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -40,7 +41,7 @@ public class PrivateController {
     PrivateService privateService;
 
     @GetMapping
-    public List<EventShortDto> getUserEvents(@PathVariable
+    public ResponseEntity<List<EventShortDto>> getUserEvents(@PathVariable
                                              @Positive
                                              Long userId,
 
@@ -50,9 +51,12 @@ public class PrivateController {
 
                                              @RequestParam(defaultValue = "10")
                                              @Positive
-                                             Integer size) {
+                                             Integer size,
+
+                                             @RequestParam(required = false)
+                                             String cursor) {
         log.info("Получение событий, добавленных текущим пользователем");
-        return privateService.getUserEvents(userId, from, size);
+        return privateService.getUserEvents(userId, from, size, cursor).toResponseEntity();
     }
 
     @PostMapping
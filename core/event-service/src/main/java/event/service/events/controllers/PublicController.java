@@ -1,16 +1,19 @@
 package event.service.events.controllers;
 
+import event.service.events.search.GeoFilter;
 import event.service.events.services.PublicService;
 import interaction.api.dto.event.EventFullDto;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -34,9 +37,10 @@ import static interaction.api.utility.AppConstants.DATE_TIME_FORMAT;
 public class PublicController {
     PublicService publicService;
 
+    // -- cursor (в т.ч. пустой) включает keyset-пагинацию; курсор следующей страницы — в заголовке X-Next-Cursor
+    // -- lat, lon, radius (км) и/или bbox=minLat,minLon,maxLat,maxLon включают поиск рядом, sort=DISTANCE — по удалённости
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<EventFullDto> getEvents(@RequestParam(required = false) String text,
+    public ResponseEntity<List<EventFullDto>> getEvents(@RequestParam(required = false) String text,
                                         @RequestParam(required = false) List<Long> categories,
                                         @RequestParam(required = false) Boolean paid,
 
@@ -50,16 +54,23 @@ public class PublicController {
 
                                         @RequestParam(defaultValue = "false") Boolean onlyAvailable,
 
+                                        @RequestParam(required = false) Double lat,
+                                        @RequestParam(required = false) Double lon,
+                                        @RequestParam(required = false) Double radius,
+                                        @RequestParam(required = false) List<Double> bbox,
+
                                         @RequestParam(required = false)
-                                        @Pattern(regexp = "EVENT_DATE|VIEWS")
+                                        @Pattern(regexp = "EVENT_DATE|VIEWS|RATING|DISTANCE")
                                         String sort,
 
-                                        @RequestParam(defaultValue = "0") Integer from,
-                                        @RequestParam(defaultValue = "10") Integer size,
+                                        @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                        @RequestParam(defaultValue = "10") @Positive Integer size,
+                                        @RequestParam(required = false) String cursor,
                                         HttpServletRequest request) {
         log.info("Поступил запрос на получение событий от ноунейма");
         return publicService.getEventsWithFilters(text, categories, paid, rangeStart, rangeEnd,
-                onlyAvailable, sort, from, size, request);
+                onlyAvailable, GeoFilter.of(lat, lon, radius, bbox), sort, from, size, cursor, request)
+                .toResponseEntity();
     }
 
     @GetMapping("/{eventId}")
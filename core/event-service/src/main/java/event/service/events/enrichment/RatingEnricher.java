@@ -0,0 +1,85 @@
+package event.service.events.enrichment;
+
+import interaction.api.dto.event.EventFullDto;
+import interaction.api.dto.event.EventShortDto;
+import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import stats.client.RatingCache;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Заполняет рейтинг событий из общего кэша рейтингов; промахи по странице загружаются одним запросом.
+ * Если анализатор не ответил за отведённое время, используются значения из кэша,
+ * а для событий без них — 0.0.
+ */
+@Component
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class RatingEnricher {
+    private static final double DEFAULT_RATING = 0.0;
+
+    RatingCache ratingCache;
+    Counter fallbacks;
+
+    public RatingEnricher(RatingCache ratingCache, MeterRegistry meterRegistry) {
+        this.ratingCache = ratingCache;
+        this.fallbacks = Counter.builder("event.analyzer.fallbacks")
+                .description("Ответы, собранные без анализатора из запасных данных")
+                .tag("kind", "rating")
+                .register(meterRegistry);
+    }
+
+    public void enrichFull(List<EventFullDto> events) {
+        attach(events, EventFullDto::getId, EventFullDto::setRating);
+    }
+
+    public void enrichShort(List<EventShortDto> events) {
+        attach(events, EventShortDto::getId, EventShortDto::setRating);
+    }
+
+    public EventFullDto enrich(EventFullDto event) {
+        enrichFull(List.of(event));
+        return event;
+    }
+
+    public Map<Long, Double> loadRatings(Collection<Long> eventIds) {
+        List<Long> ids = eventIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+
+        try {
+            return ratingCache.getAll(ids);
+        } catch (StatusRuntimeException e) {
+            Map<Long, Double> cached = ratingCache.getAllPresent(ids);
+            fallbacks.increment();
+            log.warn("Не удалось получить рейтинг для {} событий: {}. Из кэша {}, остальным {}",
+                    ids.size(), e.getStatus(), cached.size(), DEFAULT_RATING);
+            return cached;
+        }
+    }
+
+    private <T> void attach(List<T> events, Function<T, Long> idGetter, BiConsumer<T, Double> ratingSetter) {
+        if (events == null || events.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Double> ratings = loadRatings(events.stream().map(idGetter).toList());
+        events.forEach(event -> ratingSetter.accept(event,
+                ratings.getOrDefault(idGetter.apply(event), DEFAULT_RATING)));
+    }
+}
@@ -0,0 +1,122 @@
+package event.service.events.enrichment;
+
+import event.service.events.repository.EventRepository;
+import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.grpc.ewm.dashboard.message.RecommendedEventProto;
+import stats.client.AnalyzerClient;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Периодически копирует рейтинг опубликованных событий из анализатора в колонку event.rating,
+ * чтобы сортировка по популярности и пагинация выполнялись в БД. Возраст последней полной
+ * синхронизации публикуется метрикой event.rating.sync.age.
+ */
+@Component
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@SuppressWarnings("unused")
+public class RatingSynchronizer {
+    EventRepository eventRepository;
+    AnalyzerClient analyzerClient;
+    Duration deadline;
+    Duration maxStaleness;
+    int batchSize;
+    // -- До первой успешной синхронизации рейтинг считается сколь угодно устаревшим
+    AtomicReference<Instant> lastCompletedSync = new AtomicReference<>(Instant.EPOCH);
+    Counter failedSyncs;
+
+    public RatingSynchronizer(EventRepository eventRepository,
+                              AnalyzerClient analyzerClient,
+                              MeterRegistry meterRegistry,
+                              @Value("${event-service.rating.deadline:PT0.5S}") Duration deadline,
+                              @Value("${event-service.rating.max-staleness:PT10M}") Duration maxStaleness,
+                              @Value("${event-service.rating.sync-batch-size:500}") int batchSize) {
+        this.eventRepository = eventRepository;
+        this.analyzerClient = analyzerClient;
+        this.deadline = deadline;
+        this.maxStaleness = maxStaleness;
+        this.batchSize = batchSize;
+        Gauge.builder("event.rating.sync.age", this, synchronizer -> synchronizer.age().toMillis() / 1000.0)
+                .description("Секунды с начала последней полной синхронизации рейтинга")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.failedSyncs = Counter.builder("event.rating.sync.failures")
+                .description("Прерванные синхронизации рейтинга")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${event-service.rating.sync-initial-delay:PT30S}",
+            fixedDelayString = "${event-service.rating.sync-interval:PT1M}")
+    public void synchronize() {
+        Instant startedAt = Instant.now();
+        int updated;
+        try {
+            updated = synchronizeAll();
+        } catch (StatusRuntimeException e) {
+            failedSyncs.increment();
+            log.warn("Синхронизация рейтинга прервана: {}. Возраст данных {}", e.getStatus(), age());
+            warnIfStale();
+            return;
+        } catch (RuntimeException e) {
+            // -- Ошибки БД и прочие сбои тоже оставляют рейтинг устаревшим
+            failedSyncs.increment();
+            log.warn("Синхронизация рейтинга прервана: {}. Возраст данных {}", e.getMessage(), age(), e);
+            warnIfStale();
+            return;
+        }
+
+        lastCompletedSync.set(startedAt);
+        log.debug("Рейтинг синхронизирован для {} событий за {}", updated, Duration.between(startedAt, Instant.now()));
+    }
+
+    private int synchronizeAll() {
+        long afterId = 0;
+        int updated = 0;
+
+        while (true) {
+            List<Long> eventIds = eventRepository.findPublishedIdsAfter(afterId, PageRequest.of(0, batchSize));
+            if (eventIds.isEmpty()) {
+                return updated;
+            }
+
+            Map<Long, Double> ratings = new HashMap<>();
+            for (RecommendedEventProto proto : analyzerClient.getInteractionsCount(eventIds, deadline)) {
+                ratings.put(proto.getEventId(), proto.getScore());
+            }
+
+            // -- Анализатор не возвращает события без взаимодействий, их рейтинг равен 0
+            Long[] ids = eventIds.toArray(Long[]::new);
+            Double[] scores = eventIds.stream()
+                    .map(eventId -> ratings.getOrDefault(eventId, 0.0))
+                    .toArray(Double[]::new);
+            updated += eventRepository.updateRatings(ids, scores, Instant.now());
+            afterId = eventIds.getLast();
+        }
+    }
+
+    private Duration age() {
+        return Duration.between(lastCompletedSync.get(), Instant.now());
+    }
+
+    private void warnIfStale() {
+        if (age().compareTo(maxStaleness) > 0) {
+            log.error("Рейтинг событий не обновлялся дольше {}: сортировка по популярности устарела", maxStaleness);
+        }
+    }
+}
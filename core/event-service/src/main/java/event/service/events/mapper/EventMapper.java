@@ -24,6 +24,9 @@ public interface EventMapper {
     @Mapping(target = "title",            source = "dto.title")
     @Mapping(target = "state",             constant = "PENDING")
     @Mapping(target = "confirmedRequests", constant = "0L")
+    @Mapping(target = "confirmedRequestsUpdatedOn", ignore = true)
+    @Mapping(target = "rating", ignore = true)
+    @Mapping(target = "ratingUpdatedOn", ignore = true)
     @Mapping(target = "createdOn",         expression = "java(java.time.LocalDateTime.now())")
     @Mapping(target = "publishedOn",       ignore = true)
     @Mapping(target = "category",  source = "category")
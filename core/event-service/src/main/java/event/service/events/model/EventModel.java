@@ -10,6 +10,9 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.Min;
 import lombok.AccessLevel;
@@ -23,6 +26,7 @@ import event.service.category.model.Category;
 import interaction.api.enums.EventState;
 import event.service.location.Location;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 
 @Getter
@@ -33,9 +37,18 @@ import java.time.LocalDateTime;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @Entity
 @Table(name = "event")
+@NamedEntityGraph(name = EventModel.WITH_CATEGORY_AND_LOCATION, attributeNodes = {
+        @NamedAttributeNode("category"),
+        @NamedAttributeNode("location")
+})
 public class EventModel {
+    // -- Граф для списков: категория и локация читаются тем же запросом, что и события
+    public static final String WITH_CATEGORY_AND_LOCATION = "EventModel.withCategoryAndLocation";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // -- Последовательность с шагом 50: Hibernate выдаёт id пачками, и вставки группируются в JDBC batch
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "event_seq")
+    @SequenceGenerator(name = "event_seq", sequenceName = "event_seq", allocationSize = 50)
     Long id;
 
     @Column(name = "annotation", length = 2000)
@@ -45,10 +58,21 @@ public class EventModel {
     @JoinColumn(name = "category_id", nullable = false)
     Category category;
 
-    @Column(name = "confirmed_requests")
+    // -- Счётчик ведёт ConfirmedRequestsListener по событиям из request-service, обычное сохранение его не перезаписывает
+    @Column(name = "confirmed_requests", updatable = false)
     @Min(0)
     Long confirmedRequests;
 
+    @Column(name = "confirmed_requests_updated_on", insertable = false, updatable = false)
+    Instant confirmedRequestsUpdatedOn;
+
+    // -- Локальная копия рейтинга из анализатора для сортировки в БД, её обновляет RatingSynchronizer
+    @Column(name = "rating", insertable = false, updatable = false)
+    Double rating;
+
+    @Column(name = "rating_updated_on", insertable = false, updatable = false)
+    Instant ratingUpdatedOn;
+
     @Column(name = "created_on", nullable = false)
     LocalDateTime createdOn;
 
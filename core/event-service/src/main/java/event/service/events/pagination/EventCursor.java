@@ -0,0 +1,86 @@
+package event.service.events.pagination;
+
+import event.service.events.model.EventModel;
+import interaction.api.exception.BadRequestException;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Позиция для keyset-пагинации: ключ сортировки и id последнего события на странице.
+ * Клиент получает её как непрозрачную строку и передаёт обратно без изменений.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class EventCursor {
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    public static final String EVENT_DATE = "EVENT_DATE";
+    public static final String EVENT_DATE_DESC = "EVENT_DATE_DESC";
+    public static final String RATING = "RATING";
+
+    String sort;
+    // -- Ровно одно из полей задано в зависимости от sort
+    LocalDateTime eventDate;
+    Double rating;
+    Long id;
+
+    public static EventCursor after(String sort, EventModel event) {
+        return RATING.equals(sort)
+                ? new EventCursor(sort, null, event.getRating(), event.getId())
+                : new EventCursor(sort, event.getEventDate(), null, event.getId());
+    }
+
+    // -- Неполная страница — последняя, курсор для неё не выдаётся
+    public static String nextToken(String sort, List<EventModel> page, int size) {
+        return page.size() < size ? null : after(sort, page.getLast()).encode();
+    }
+
+    public static LocalDateTime eventDateOf(EventCursor cursor) {
+        return cursor == null ? null : cursor.getEventDate();
+    }
+
+    public static Double ratingOf(EventCursor cursor) {
+        return cursor == null ? null : cursor.getRating();
+    }
+
+    public static Long idOf(EventCursor cursor) {
+        return cursor == null ? null : cursor.getId();
+    }
+
+    public String encode() {
+        String key = RATING.equals(sort) ? Double.toString(rating) : eventDate.toString();
+        String payload = String.join(SEPARATOR, VERSION, sort, key, id.toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // -- Пустой курсор означает первую страницу в режиме keyset
+    public static EventCursor decode(String token, String expectedSort) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        try {
+            String payload = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = payload.split("\\" + SEPARATOR);
+            if (parts.length != 4 || !VERSION.equals(parts[0]) || !expectedSort.equals(parts[1])) {
+                throw new BadRequestException("Курсор не подходит для этого запроса");
+            }
+            long id = Long.parseLong(parts[3]);
+            return RATING.equals(expectedSort)
+                    ? new EventCursor(parts[1], null, Double.parseDouble(parts[2]), id)
+                    : new EventCursor(parts[1], LocalDateTime.parse(parts[2]), null, id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Некорректный курсор: " + token);
+        }
+    }
+}
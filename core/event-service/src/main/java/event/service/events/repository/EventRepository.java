@@ -2,11 +2,15 @@ package event.service.events.repository;
 
 import event.service.events.model.EventModel;
 import interaction.api.enums.EventState;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -14,10 +18,22 @@ import java.util.Optional;
 public interface EventRepository extends JpaRepository<EventModel, Long> {
     List<EventModel> findAllByCategoryId(Long catId);
 
-    Page<EventModel> findByInitiatorId(Long userId, Pageable pageable);
+    // -- Keyset по (eventDate DESC, id DESC), индекс idx_event_initiator_date
+    @EntityGraph(EventModel.WITH_CATEGORY_AND_LOCATION)
+    @Query("""
+                SELECT e
+                FROM EventModel AS e
+                WHERE e.initiatorId = ?1
+                AND (CAST(?2 AS timestamp) IS NULL OR e.eventDate < ?2 OR (e.eventDate = ?2 AND e.id < ?3))
+                ORDER BY e.eventDate DESC, e.id DESC
+            """)
+    List<EventModel> findByInitiatorIdBefore(Long userId, LocalDateTime cursorDate, Long cursorId, Pageable pageable);
 
     Optional<EventModel> findByIdAndInitiatorId(Long eventId, Long userId);
 
+    // -- text ищется как подстрока без учёта регистра; ILIKE обслуживают триграммные индексы
+    // -- idx_event_annotation_trgm и idx_event_description_trgm
+    @EntityGraph(EventModel.WITH_CATEGORY_AND_LOCATION)
     @Query("""
                 SELECT e
                 FROM EventModel AS e
@@ -28,10 +44,32 @@ public interface EventRepository extends JpaRepository<EventModel, Long> {
                 AND (CAST(?4 AS timestamp) IS NULL AND e.eventDate >= CURRENT_TIMESTAMP OR e.eventDate >= ?4)
                 AND (CAST(?5 AS timestamp) IS NULL OR e.eventDate < ?5)
                 AND (?6 = false OR e.participantLimit = 0 OR e.participantLimit > e.confirmedRequests)
+                ORDER BY e.id
             """)
     List<EventModel> findAllByFiltersPublic(String text, List<Long> categoryIds, Boolean paid, LocalDateTime rangeStart,
                                             LocalDateTime rangeEnd, Boolean onlyAvailable, Pageable pageable);
 
+    // -- Те же фильтры, порядок (eventDate, id) и keyset-условие; индекс idx_event_state_date
+    @EntityGraph(EventModel.WITH_CATEGORY_AND_LOCATION)
+    @Query("""
+                SELECT e
+                FROM EventModel AS e
+                WHERE e.state = 'PUBLISHED'
+                AND (?1 IS NULL OR e.annotation ILIKE %?1% OR e.description ILIKE %?1%)
+                AND (?2 IS NULL OR e.category.id IN ?2)
+                AND (?3 IS NULL OR e.paid = ?3)
+                AND (CAST(?4 AS timestamp) IS NULL AND e.eventDate >= CURRENT_TIMESTAMP OR e.eventDate >= ?4)
+                AND (CAST(?5 AS timestamp) IS NULL OR e.eventDate < ?5)
+                AND (?6 = false OR e.participantLimit = 0 OR e.participantLimit > e.confirmedRequests)
+                AND (CAST(?7 AS timestamp) IS NULL OR e.eventDate > ?7 OR (e.eventDate = ?7 AND e.id > ?8))
+                ORDER BY e.eventDate, e.id
+            """)
+    List<EventModel> findAllByFiltersPublicAfter(String text, List<Long> categoryIds, Boolean paid,
+                                                 LocalDateTime rangeStart, LocalDateTime rangeEnd,
+                                                 Boolean onlyAvailable, LocalDateTime cursorDate, Long cursorId,
+                                                 Pageable pageable);
+
+    @EntityGraph(EventModel.WITH_CATEGORY_AND_LOCATION)
     @Query("""
                 SELECT e
                 FROM EventModel AS e
@@ -40,9 +78,112 @@ public interface EventRepository extends JpaRepository<EventModel, Long> {
                 AND (?3 IS NULL OR e.category.id IN ?3)
                 AND (CAST(?4 AS timestamp) IS NULL OR e.eventDate >= ?4)
                 AND (CAST(?5 AS timestamp) IS NULL OR e.eventDate < ?5)
+                AND (CAST(?6 AS timestamp) IS NULL OR e.eventDate > ?6 OR (e.eventDate = ?6 AND e.id > ?7))
+                ORDER BY e.eventDate, e.id
             """)
-    Page<EventModel> findAllByFiltersAdmin(List<Long> userIds, List<EventState> states, List<Long> categoryIds,
-                                           LocalDateTime rangeStart, LocalDateTime rangeEnd, Pageable pageable);
+    List<EventModel> findAllByFiltersAdmin(List<Long> userIds, List<EventState> states, List<Long> categoryIds,
+                                           LocalDateTime rangeStart, LocalDateTime rangeEnd,
+                                           LocalDateTime cursorDate, Long cursorId, Pageable pageable);
 
+    @EntityGraph(EventModel.WITH_CATEGORY_AND_LOCATION)
     List<EventModel> findAllByIdIn(List<Long> eventIds);
-}
\ No newline at end of file
+
+    // -- Те же фильтры, порядок (rating DESC, id) и keyset-условие; индекс idx_event_state_rating
+    @EntityGraph(EventModel.WITH_CATEGORY_AND_LOCATION)
+    @Query("""
+                SELECT e
+                FROM EventModel AS e
+                WHERE e.state = 'PUBLISHED'
+                AND (?1 IS NULL OR e.annotation ILIKE %?1% OR e.description ILIKE %?1%)
+                AND (?2 IS NULL OR e.category.id IN ?2)
+                AND (?3 IS NULL OR e.paid = ?3)
+                AND (CAST(?4 AS timestamp) IS NULL AND e.eventDate >= CURRENT_TIMESTAMP OR e.eventDate >= ?4)
+                AND (CAST(?5 AS timestamp) IS NULL OR e.eventDate < ?5)
+                AND (?6 = false OR e.participantLimit = 0 OR e.participantLimit > e.confirmedRequests)
+                AND (CAST(?7 AS double) IS NULL OR e.rating < ?7 OR (e.rating = ?7 AND e.id > ?8))
+                ORDER BY e.rating DESC, e.id
+            """)
+    List<EventModel> findAllByFiltersPublicByRating(String text, List<Long> categoryIds, Boolean paid,
+                                                    LocalDateTime rangeStart, LocalDateTime rangeEnd,
+                                                    Boolean onlyAvailable, Double cursorRating, Long cursorId,
+                                                    Pageable pageable);
+
+    // -- Поиск рядом: ячейки GeoGrid (индекс idx_location_grid_cell) отсекают кандидатов,
+    // -- координаты и расстояние проверяются точно; ?15 — порядок DISTANCE, RATING или по дате;
+    // -- ?16, ?17 — диапазон долгот за антимеридианом, если круг его пересекает
+    @Query("""
+                SELECT e
+                FROM EventModel AS e
+                JOIN FETCH e.location AS l
+                JOIN FETCH e.category
+                WHERE e.state = 'PUBLISHED'
+                AND (?1 IS NULL OR e.annotation ILIKE %?1% OR e.description ILIKE %?1%)
+                AND (?2 IS NULL OR e.category.id IN ?2)
+                AND (?3 IS NULL OR e.paid = ?3)
+                AND (CAST(?4 AS timestamp) IS NULL AND e.eventDate >= CURRENT_TIMESTAMP OR e.eventDate >= ?4)
+                AND (CAST(?5 AS timestamp) IS NULL OR e.eventDate < ?5)
+                AND (?6 = false OR e.participantLimit = 0 OR e.participantLimit > e.confirmedRequests)
+                AND (?7 IS NULL OR l.gridCell IN ?7)
+                AND l.lat BETWEEN ?8 AND ?10
+                AND (l.lon BETWEEN ?9 AND ?11 OR CAST(?16 AS double) IS NOT NULL AND l.lon BETWEEN ?16 AND ?17)
+                AND (CAST(?14 AS double) IS NULL OR geo_distance_km(l.lat, l.lon, ?12, ?13) <= ?14)
+                ORDER BY CASE WHEN ?15 = 'DISTANCE' THEN geo_distance_km(l.lat, l.lon, ?12, ?13) ELSE 0 END,
+                         CASE WHEN ?15 = 'RATING' THEN e.rating ELSE 0 END DESC,
+                         e.eventDate, e.id
+            """)
+    List<EventModel> findAllByFiltersPublicNear(String text, List<Long> categoryIds, Boolean paid,
+                                                LocalDateTime rangeStart, LocalDateTime rangeEnd,
+                                                Boolean onlyAvailable, List<Long> cells,
+                                                double minLat, double minLon, double maxLat, double maxLon,
+                                                Double centerLat, Double centerLon, Double radiusKm,
+                                                String order, Double wrapMinLon, Double wrapMaxLon,
+                                                Pageable pageable);
+
+    @Query("SELECT e.id FROM EventModel AS e WHERE e.state = 'PUBLISHED' AND e.id > :afterId ORDER BY e.id")
+    List<Long> findPublishedIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // -- Рейтинг пачки событий одной инструкцией
+    @Transactional
+    @Modifying
+    @Query(value = """
+                UPDATE event AS e
+                SET rating = v.rating, rating_updated_on = :updatedOn
+                FROM unnest(CAST(:eventIds AS BIGINT[]), CAST(:ratings AS DOUBLE PRECISION[])) AS v(id, rating)
+                WHERE e.id = v.id
+            """, nativeQuery = true)
+    int updateRatings(@Param("eventIds") Long[] eventIds, @Param("ratings") Double[] ratings,
+                      @Param("updatedOn") Instant updatedOn);
+
+    @Query("SELECT e.id FROM EventModel AS e WHERE e.id > :afterId ORDER BY e.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // -- Сообщение применяется, только если оно свежее уже записанного значения
+    @Transactional
+    @Modifying
+    @Query("""
+                UPDATE EventModel AS e
+                SET e.confirmedRequests = :confirmed, e.confirmedRequestsUpdatedOn = :countedAt
+                WHERE e.id = :eventId
+                AND (e.confirmedRequestsUpdatedOn IS NULL OR e.confirmedRequestsUpdatedOn < :countedAt)
+            """)
+    int updateConfirmedRequests(@Param("eventId") Long eventId, @Param("confirmed") Long confirmed,
+                                @Param("countedAt") Instant countedAt);
+
+    // -- Сверка пачки одной инструкцией: затрагивает только строки с расхождением,
+    // -- поэтому число обновлённых строк равно числу исправлений
+    @Transactional
+    @Modifying
+    @Query(value = """
+                UPDATE event AS e
+                SET confirmed_requests = v.confirmed, confirmed_requests_updated_on = :countedAt
+                FROM unnest(CAST(:eventIds AS BIGINT[]), CAST(:confirmed AS BIGINT[])) AS v(id, confirmed)
+                WHERE e.id = v.id
+                AND e.confirmed_requests IS DISTINCT FROM v.confirmed
+                AND (e.confirmed_requests_updated_on IS NULL OR e.confirmed_requests_updated_on < :countedAt)
+            """, nativeQuery = true)
+    int reconcileConfirmedRequests(@Param("eventIds") Long[] eventIds, @Param("confirmed") Long[] confirmed,
+                                   @Param("countedAt") Instant countedAt);
+
+    @Query("SELECT e.confirmedRequests FROM EventModel AS e WHERE e.id = :eventId")
+    Optional<Long> findConfirmedRequestsById(@Param("eventId") Long eventId);
+}
@@ -0,0 +1,137 @@
+package event.service.events.search;
+
+import event.service.location.GeoGrid;
+import interaction.api.exception.BadRequestException;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Область поиска «рядом со мной»: круг (lat, lon, radius в км) и/или прямоугольник
+ * bbox=minLat,minLon,maxLat,maxLon. Если заданы оба, ищем в их пересечении.
+ * Круг, пересекающий антимеридиан, делится на два диапазона долгот: основной [minLon, maxLon]
+ * и дополнительный [wrapMinLon, wrapMaxLon] по другую сторону от ±180°.
+ * Прямоугольники bbox через антимеридиан не поддерживаются.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class GeoFilter {
+    public static final double MAX_RADIUS_KM = 500;
+    // -- При большем числе ячеек индекс сетки не выигрывает у фильтра по координатам
+    private static final int MAX_CELLS = 1024;
+
+    double minLat;
+    double minLon;
+    double maxLat;
+    double maxLon;
+    // -- null, если область не пересекает антимеридиан
+    Double wrapMinLon;
+    Double wrapMaxLon;
+    Double centerLat;
+    Double centerLon;
+    Double radiusKm;
+    List<Long> cells;
+
+    public static GeoFilter of(Double lat, Double lon, Double radiusKm, List<Double> bbox) {
+        boolean hasCircle = lat != null || lon != null || radiusKm != null;
+        if (!hasCircle && bbox == null) {
+            return null;
+        }
+
+        double minLat = -90;
+        double minLon = -180;
+        double maxLat = 90;
+        double maxLon = 180;
+        double wrapMinLon = 0;
+        double wrapMaxLon = -1;
+
+        if (hasCircle) {
+            if (lat == null || lon == null || radiusKm == null) {
+                throw new BadRequestException("Для поиска рядом нужно указать lat, lon и radius");
+            }
+            if (Math.abs(lat) > 90 || Math.abs(lon) > 180) {
+                throw new BadRequestException("Координаты центра вне допустимого диапазона");
+            }
+            if (radiusKm <= 0 || radiusKm > MAX_RADIUS_KM) {
+                throw new BadRequestException("Радиус должен быть больше 0 и не больше " + MAX_RADIUS_KM + " км");
+            }
+            double latSpan = GeoGrid.latitudeSpan(radiusKm);
+            double lonSpan = GeoGrid.longitudeSpan(lat, radiusKm);
+            minLat = lat - latSpan;
+            maxLat = lat + latSpan;
+            minLon = lon - lonSpan;
+            maxLon = lon + lonSpan;
+
+            // -- Часть круга за антимеридианом переносится на другую сторону отдельным диапазоном
+            if (maxLon - minLon >= 360) {
+                minLon = -180;
+                maxLon = 180;
+            } else if (minLon < -180) {
+                wrapMinLon = minLon + 360;
+                wrapMaxLon = 180;
+                minLon = -180;
+            } else if (maxLon > 180) {
+                wrapMinLon = -180;
+                wrapMaxLon = maxLon - 360;
+                maxLon = 180;
+            }
+        }
+
+        if (bbox != null) {
+            if (bbox.size() != 4 || bbox.get(0) > bbox.get(2) || bbox.get(1) > bbox.get(3)) {
+                throw new BadRequestException("bbox задаётся как minLat,minLon,maxLat,maxLon");
+            }
+            minLat = Math.max(minLat, bbox.get(0));
+            minLon = Math.max(minLon, bbox.get(1));
+            maxLat = Math.min(maxLat, bbox.get(2));
+            maxLon = Math.min(maxLon, bbox.get(3));
+            wrapMinLon = Math.max(wrapMinLon, bbox.get(1));
+            wrapMaxLon = Math.min(wrapMaxLon, bbox.get(3));
+        }
+
+        minLat = Math.max(minLat, -90);
+        minLon = Math.max(minLon, -180);
+        maxLat = Math.min(maxLat, 90);
+        maxLon = Math.min(maxLon, 180);
+
+        boolean hasWrap = wrapMinLon <= wrapMaxLon;
+        if (hasWrap && minLon > maxLon) {
+            // -- bbox целиком по другую сторону антимеридиана: остаётся один диапазон
+            minLon = wrapMinLon;
+            maxLon = wrapMaxLon;
+            hasWrap = false;
+        }
+
+        // -- Пустое пересечение: условие по координатам ничего не найдёт, ячейки не нужны
+        List<Long> cells = minLat > maxLat || minLon > maxLon
+                ? null
+                : cellsCovering(minLat, minLon, maxLat, maxLon, hasWrap, wrapMinLon, wrapMaxLon);
+        return new GeoFilter(minLat, minLon, maxLat, maxLon,
+                hasWrap ? wrapMinLon : null, hasWrap ? wrapMaxLon : null, lat, lon, radiusKm, cells);
+    }
+
+    public boolean hasCenter() {
+        return centerLat != null;
+    }
+
+    private static List<Long> cellsCovering(double minLat, double minLon, double maxLat, double maxLon,
+                                            boolean hasWrap, double wrapMinLon, double wrapMaxLon) {
+        List<Long> cells = GeoGrid.cellsCovering(minLat, minLon, maxLat, maxLon, MAX_CELLS);
+        if (cells == null || !hasWrap) {
+            return cells;
+        }
+
+        List<Long> wrapCells = GeoGrid.cellsCovering(minLat, wrapMinLon, maxLat, wrapMaxLon, MAX_CELLS - cells.size());
+        if (wrapCells == null) {
+            return null;
+        }
+        List<Long> all = new ArrayList<>(cells);
+        all.addAll(wrapCells);
+        return all;
+    }
+}
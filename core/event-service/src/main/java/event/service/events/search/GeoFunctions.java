@@ -0,0 +1,26 @@
+package event.service.events.search;
+
+import event.service.location.GeoGrid;
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Расстояние по формуле гаверсинусов для JPQL, без зависимости от PostGIS.
+ */
+public class GeoFunctions implements FunctionContributor {
+    private static final String HAVERSINE_KM = "(2 * " + GeoGrid.EARTH_RADIUS_KM + " * asin(sqrt("
+            + "power(sin(radians(?3 - ?1) / 2), 2)"
+            + " + cos(radians(?1)) * cos(radians(?3)) * power(sin(radians(?4 - ?2) / 2), 2))))";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicType<Double> doubleType = functionContributions.getTypeConfiguration()
+                .getBasicTypeRegistry().resolve(StandardBasicTypes.DOUBLE);
+
+        // -- geo_distance_km(lat1, lon1, lat2, lon2)
+        functionContributions.getFunctionRegistry()
+                .registerPattern("geo_distance_km", HAVERSINE_KM, doubleType);
+    }
+}
@@ -1,5 +1,6 @@
 package event.service.events.services;
 
+import event.service.events.pagination.CursorPage;
 import interaction.api.dto.event.EventFullDto;
 import interaction.api.dto.event.UpdateEventAdminRequest;
 
@@ -9,8 +10,8 @@ import java.util.List;
 public interface AdminService {
     EventFullDto updateEvent(UpdateEventAdminRequest updateEventAdminRequest, Long eventId);
 
-    List<EventFullDto> getEventsWithAdminFilters(List<Long> users, List<String> states, List<Long> categoryIds,
-        LocalDateTime rangeStart, LocalDateTime rangeEnd, Integer from, Integer size);
+    CursorPage<EventFullDto> getEventsWithAdminFilters(List<Long> users, List<String> states, List<Long> categoryIds,
+        LocalDateTime rangeStart, LocalDateTime rangeEnd, Integer from, Integer size, String cursor);
 
     EventFullDto getEventById(Long eventId);
 }
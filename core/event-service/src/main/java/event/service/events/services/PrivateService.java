@@ -1,6 +1,7 @@
 package event.service.events.services;
 
 import event.service.events.model.EventModel;
+import event.service.events.pagination.CursorPage;
 import interaction.api.dto.event.EventFullDto;
 import interaction.api.dto.event.EventShortDto;
 import interaction.api.dto.event.NewEventDto;
@@ -13,7 +14,7 @@ import java.util.List;
 import java.util.Optional;
 
 public interface PrivateService {
-    List<EventShortDto> getUserEvents(Long userId, Integer from, Integer size);
+    CursorPage<EventShortDto> getUserEvents(Long userId, Integer from, Integer size, String cursor);
 
     EventFullDto createEvent(NewEventDto newEventDto, Long userId);
 
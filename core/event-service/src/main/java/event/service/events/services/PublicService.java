@@ -3,6 +3,8 @@ package event.service.events.services;
 import interaction.api.dto.event.EventFullDto;
 import jakarta.servlet.http.HttpServletRequest;
 import event.service.events.model.EventModel;
+import event.service.events.pagination.CursorPage;
+import event.service.events.search.GeoFilter;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -12,9 +14,10 @@ public interface PublicService {
 
     List<EventModel> findAllByCategoryId(Long catId);
 
-    List<EventFullDto> getEventsWithFilters(String text, List<Long> categoryIds, Boolean paid, LocalDateTime rangeStart,
-                                            LocalDateTime rangeEnd, Boolean onlyAvailable, String sort, Integer from,
-                                            Integer size, HttpServletRequest request);
+    CursorPage<EventFullDto> getEventsWithFilters(String text, List<Long> categoryIds, Boolean paid,
+                                                  LocalDateTime rangeStart, LocalDateTime rangeEnd, Boolean onlyAvailable,
+                                                  GeoFilter geo, String sort, Integer from, Integer size, String cursor,
+                                                  HttpServletRequest request);
 
     List<EventFullDto> getRecommendation(Long userId, Long max);
 
@@ -1,15 +1,11 @@
 package event.service.events.services.impls;
 
 import event.service.category.service.CategoryService;
-import event.service.feign.client.RequestClient;
-import feign.FeignException;
 import interaction.api.dto.event.EventFullDto;
 import interaction.api.dto.event.UpdateEventAdminRequest;
-import interaction.api.dto.request.ParticipationRequestDto;
 import interaction.api.exception.BadRequestException;
 import interaction.api.exception.ConflictException;
 import interaction.api.exception.NotFoundException;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.util.CollectionUtils;
 import lombok.AccessLevel;
@@ -19,25 +15,25 @@ import lombok.extern.slf4j.Slf4j;
 import event.service.category.model.Category;
 import interaction.api.enums.EventState;
 import interaction.api.enums.StateActionAdmin;
+import event.service.events.cache.EventDetailsCache;
+import event.service.events.enrichment.RatingEnricher;
 import event.service.events.mapper.EventMapper;
 import event.service.events.model.EventModel;
+import event.service.events.pagination.CursorPage;
+import event.service.events.pagination.EventCursor;
+import event.service.events.pagination.OffsetPageRequest;
 import event.service.events.repository.EventRepository;
 import event.service.events.services.AdminService;
 import event.service.location.Location;
 import event.service.location.LocationMapper;
 import event.service.location.service.LocationServiceImpl;
-import org.springframework.data.domain.PageRequest;
+import event.service.outbox.EventLifecycleOutbox;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import stats.client.AnalyzerClient;
-import ru.practicum.grpc.ewm.dashboard.message.RecommendedEventProto;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -51,16 +47,18 @@ public class AdminServiceImpl implements AdminService {
     CategoryService categoryService;
     LocationServiceImpl locationService;
     LocationMapper locationMapper;
-    AnalyzerClient analyzerClient;
-    RequestClient requestClient;
+    RatingEnricher ratingEnricher;
+    EventDetailsCache eventDetailsCache;
+    EventLifecycleOutbox eventLifecycleOutbox;
 
     @Transactional(readOnly = true)
-    public List<EventFullDto> getEventsWithAdminFilters(List<Long> userIds, List<String> states, List<Long> categoryIds,
-                                                        LocalDateTime rangeStart, LocalDateTime rangeEnd, Integer from, Integer size) {
+    public CursorPage<EventFullDto> getEventsWithAdminFilters(List<Long> userIds, List<String> states, List<Long> categoryIds,
+                                                              LocalDateTime rangeStart, LocalDateTime rangeEnd, Integer from,
+                                                              Integer size, String cursor) {
 
         log.debug("Получен запрос на получения админ события по фильтрам с параметрами: " +
-                  "userIds={}, states={}, categoryIds={}, rangeStart={}, rangeEnd={}, from={}, size={}",
-                userIds, states, categoryIds, rangeStart, rangeEnd, from, size);
+                  "userIds={}, states={}, categoryIds={}, rangeStart={}, rangeEnd={}, from={}, size={}, cursor='{}'",
+                userIds, states, categoryIds, rangeStart, rangeEnd, from, size, cursor);
 
         if ((rangeStart != null) && (rangeEnd != null) && (rangeStart.isAfter(rangeEnd)))
             throw new BadRequestException("Время начала не может быть позже времени конца");
@@ -81,31 +79,27 @@ public class AdminServiceImpl implements AdminService {
         List<EventState> finalEventStates = CollectionUtils.isEmpty(eventStates) ? null : eventStates;
         List<Long> finalCategoryIds = CollectionUtils.isEmpty(categoryIds) ? null : categoryIds;
 
-        Pageable pageable = PageRequest.of(from / size, size);
+        EventCursor after = cursor == null ? null : EventCursor.decode(cursor, EventCursor.EVENT_DATE);
+        Pageable pageable = OffsetPageRequest.of(cursor == null ? from : 0, size);
 
-        Page<EventModel> eventsPage = eventRepository.findAllByFiltersAdmin(
+        List<EventModel> events = eventRepository.findAllByFiltersAdmin(
                 finalUserIds,
                 finalEventStates,
                 finalCategoryIds,
                 rangeStart,
                 rangeEnd,
+                EventCursor.eventDateOf(after),
+                EventCursor.idOf(after),
                 pageable
         );
-
-        List<EventModel> events = eventsPage.getContent();
-        fillConfirmedRequestsInModels(events);
+        String nextCursor = cursor == null ? null : EventCursor.nextToken(EventCursor.EVENT_DATE, events, size);
 
         log.debug("Собираем событие для ответа");
-        return events.stream()
-                .map(eventModel -> {
-                    EventFullDto eventFull = eventMapper.toFullDto(eventModel);
-                    eventFull.setRating(analyzerClient.getInteractionsCount(List.of(eventModel.getId()))
-                            .map(RecommendedEventProto::getScore)
-                            .findFirst()
-                            .orElse(0.0));
-                    return eventFull;
-                })
+        List<EventFullDto> result = events.stream()
+                .map(eventMapper::toFullDto)
                 .collect(Collectors.toCollection(ArrayList::new));
+        ratingEnricher.enrichFull(result);
+        return new CursorPage<>(result, nextCursor);
     }
 
     @Transactional
@@ -122,17 +116,12 @@ public class AdminServiceImpl implements AdminService {
         changeEventState(event, updateRequest.getState());
         updateEventFields(event, updateRequest);
 
-        fillConfirmedRequestInModel(event);
         eventRepository.save(event);
+        eventLifecycleOutbox.stateChanged(event);
+        eventDetailsCache.evictAfterCommit(eventId);
 
         log.debug("Сборка события для ответа");
-        EventFullDto result = eventMapper.toFullDto(event);
-        result.setRating(analyzerClient.getInteractionsCount(List.of(event.getId()))
-                .map(RecommendedEventProto::getScore)
-                .findFirst()
-                .orElse(0.0));
-
-        return result;
+        return ratingEnricher.enrich(eventMapper.toFullDto(event));
     }
 
     @Transactional(readOnly = true)
@@ -141,48 +130,7 @@ public class AdminServiceImpl implements AdminService {
         EventModel event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new NotFoundException(String.format("Событие с id= %d не найдено", eventId)));
 
-        fillConfirmedRequestInModel(event);
-
-        EventFullDto dto = eventMapper.toFullDto(event);
-        dto.setRating(analyzerClient.getInteractionsCount(List.of(event.getId()))
-                .map(RecommendedEventProto::getScore)
-                .findFirst()
-                .orElse(0.0));
-        return dto;
-    }
-
-    private void fillConfirmedRequestsInModels(List<EventModel> events) {
-        if (CollectionUtils.isEmpty(events)) return;
-
-        List<Long> eventIds = events.stream()
-                .map(EventModel::getId)
-                .filter(Objects::nonNull)
-                .distinct()
-                .toList();
-
-        if (eventIds.isEmpty()) {
-            events.forEach(e -> e.setConfirmedRequests(0L));
-            return;
-        }
-
-        try {
-            Map<Long, List<ParticipationRequestDto>> confirmedMap = requestClient.prepareConfirmedRequests(eventIds);
-            events.forEach(event -> {
-                List<ParticipationRequestDto> reqs = confirmedMap.getOrDefault(event.getId(), Collections.emptyList());
-                event.setConfirmedRequests((long) reqs.size());
-            });
-        } catch (FeignException e) {
-            log.warn("Не удалось заполнить confirmedRequests для eventIds {}: Fallback 0L", eventIds, e);
-            events.forEach(event -> event.setConfirmedRequests(0L));
-        }
-    }
-
-    private void fillConfirmedRequestInModel(EventModel event) {
-        if (event != null && event.getId() != null) {
-            fillConfirmedRequestsInModels(List.of(event));
-        } else if (event != null) {
-            event.setConfirmedRequests(0L);
-        }
+        return ratingEnricher.enrich(eventMapper.toFullDto(event));
     }
 
     private void validateEventState(EventModel event, StateActionAdmin state) {
@@ -16,10 +16,9 @@ import interaction.api.exception.BadRequestException;
 import interaction.api.exception.ConflictException;
 import interaction.api.exception.NotFoundException;
 import interaction.api.exception.UserOperationFailedException;
+import interaction.api.lookup.UserLookup;
+import io.grpc.StatusRuntimeException;
 import event.service.category.service.CategoryService;
-import event.service.feign.client.UserClient;
-import stats.client.AnalyzerClient;
-import ru.practicum.grpc.ewm.dashboard.message.RecommendedEventProto;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -27,23 +26,23 @@ import lombok.extern.slf4j.Slf4j;
 import event.service.category.model.Category;
 import interaction.api.enums.EventState;
 import interaction.api.enums.StateAction;
+import event.service.events.cache.EventDetailsCache;
+import event.service.events.enrichment.RatingEnricher;
 import event.service.events.mapper.EventMapper;
 import event.service.events.model.EventModel;
+import event.service.events.pagination.CursorPage;
+import event.service.events.pagination.EventCursor;
+import event.service.events.pagination.OffsetPageRequest;
 import event.service.events.repository.EventRepository;
 import event.service.events.services.PrivateService;
 import event.service.location.Location;
 import event.service.location.LocationMapper;
 import event.service.location.service.LocationServiceImpl;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import event.service.outbox.EventLifecycleOutbox;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
-import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -56,12 +55,14 @@ import java.util.stream.Collectors;
 public class PrivateServiceImpl implements PrivateService {
     EventRepository eventRepository;
     EventMapper eventMapper;
-    UserClient userClient;
+    UserLookup userLookup;
     RequestClient requestClient;
     CategoryService categoryService;
     LocationServiceImpl locationService;
     LocationMapper locationMapper;
-    AnalyzerClient analyzerClient;
+    RatingEnricher ratingEnricher;
+    EventDetailsCache eventDetailsCache;
+    EventLifecycleOutbox eventLifecycleOutbox;
 
     @Override
     public EventFullDto createEvent(NewEventDto newEvent, Long userId) {
@@ -74,7 +75,9 @@ public class PrivateServiceImpl implements PrivateService {
 
         event.setConfirmedRequests(0L);
 
-        return eventMapper.toFullDto(eventRepository.save(event));
+        EventModel saved = eventRepository.save(event);
+        eventLifecycleOutbox.stateChanged(saved);
+        return eventMapper.toFullDto(saved);
     }
 
     @Override
@@ -95,41 +98,32 @@ public class PrivateServiceImpl implements PrivateService {
         changeEventState(event, update);
         updateEventFields(event, update);
 
-        fillConfirmedRequestInModel(event);
         eventRepository.save(event);
+        eventLifecycleOutbox.stateChanged(event);
+        eventDetailsCache.evictAfterCommit(eventId);
 
         log.debug("Сборка события для ответа");
 
-        EventFullDto result = eventMapper.toFullDto(event);
-        result.setRating(analyzerClient.getInteractionsCount(List.of(event.getId()))
-                .map(RecommendedEventProto::getScore)
-                .findFirst()
-                .orElse(0.0));
-        return result;
+        return ratingEnricher.enrich(eventMapper.toFullDto(event));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<EventShortDto> getUserEvents(Long userId, Integer from, Integer size) {
+    public CursorPage<EventShortDto> getUserEvents(Long userId, Integer from, Integer size, String cursor) {
         log.debug("Получен запрос для получения событий пользователя");
         findExistingUser(userId);
 
-        Page<EventModel> eventsPage = eventRepository.findByInitiatorId(
-                userId, PageRequest.of(from / size, size, Sort.by("eventDate").descending()));
-
-        List<EventModel> events = eventsPage.getContent();
-        fillConfirmedRequestsInModels(events);
-
-        return events.stream()
-                .map(event -> {
-                    EventShortDto dto = eventMapper.toShortDto(event);
-                    dto.setRating(analyzerClient.getInteractionsCount(List.of(event.getId()))
-                            .map(RecommendedEventProto::getScore)
-                            .findFirst()
-                            .orElse(0.0));
-                    return dto;
-                })
+        EventCursor before = cursor == null ? null : EventCursor.decode(cursor, EventCursor.EVENT_DATE_DESC);
+        List<EventModel> events = eventRepository.findByInitiatorIdBefore(userId,
+                EventCursor.eventDateOf(before), EventCursor.idOf(before),
+                OffsetPageRequest.of(cursor == null ? from : 0, size));
+        String nextCursor = cursor == null ? null : EventCursor.nextToken(EventCursor.EVENT_DATE_DESC, events, size);
+
+        List<EventShortDto> result = events.stream()
+                .map(eventMapper::toShortDto)
                 .collect(Collectors.toList());
+        ratingEnricher.enrichShort(result);
+        return new CursorPage<>(result, nextCursor);
     }
 
     @Override
@@ -141,22 +135,17 @@ public class PrivateServiceImpl implements PrivateService {
 
         log.debug("Сборка события для ответа");
 
-        EventFullDto result = eventMapper.toFullDto(event);
-        result.setRating(analyzerClient.getInteractionsCount(List.of(event.getId()))
-                .map(RecommendedEventProto::getScore)
-                .findFirst()
-                .orElse(0.0));
-        return result;
+        return ratingEnricher.enrich(eventMapper.toFullDto(event));
     }
 
     @Override
     public List<EventModel> findAllById(List<Long> ids) {
-        return eventRepository.findAllById(ids);
+        return eventRepository.findAllByIdIn(ids);
     }
 
     @Override
     public Optional<EventModel> findById(Long id) {
-        return eventRepository.findById(id).map(this::fillConfirmedRequestInModelSafe);
+        return eventRepository.findById(id);
     }
 
     @Override
@@ -184,75 +173,28 @@ public class PrivateServiceImpl implements PrivateService {
         command.setEventId(eventId);
         command.setUpdateDto(dtoReq);
 
-        EventRequestStatusUpdateResultDto result = requestClient.updateParticipationRequestsStatus(command);
-
-        Long newConfirmedCount = (long) result.getConfirmedRequests().size();
-        event.setConfirmedRequests(newConfirmedCount);
-
-        eventRepository.save(event);
-
-        log.debug("Обновлен confirmedRequests для event {} в значение {}", eventId, newConfirmedCount);
-        return result;
+        // -- confirmedRequests события обновит ConfirmedRequestsListener по сообщению request-service
+        return requestClient.updateParticipationRequestsStatus(command);
     }
 
     private EventModel findByIdAndInitiator(Long eventId, Long initiatorId) {
         EventModel event = eventRepository.findByIdAndInitiatorId(eventId, initiatorId)
                 .orElseThrow(() -> new NotFoundException(
                         String.format("Событие с id %d для пользователя с id %d не найдено.", eventId, initiatorId)));
-        fillConfirmedRequestInModel(event);
         return event;
     }
 
-    private EventModel fillConfirmedRequestInModelSafe(EventModel event) {
-        fillConfirmedRequestInModel(event);
-        return event;
-    }
-
-    private void fillConfirmedRequestsInModels(List<EventModel> events) {
-        if (events == null || events.isEmpty()) return;
-
-        List<Long> eventIds = events.stream()
-                .map(EventModel::getId)
-                .filter(Objects::nonNull)
-                .distinct()
-                .toList();
-
-        if (eventIds.isEmpty()) {
-            events.forEach(e -> e.setConfirmedRequests(0L));
-            return;
-        }
-
-        try {
-            Map<Long, List<ParticipationRequestDto>> confirmedMap = requestClient.prepareConfirmedRequests(eventIds);
-            events.forEach(event -> {
-                List<ParticipationRequestDto> reqs = confirmedMap.getOrDefault(event.getId(), Collections.emptyList());
-                event.setConfirmedRequests((long) reqs.size());
-            });
-        } catch (FeignException e) {
-            log.warn("Не удалось заполнить confirmedRequests для eventIds {}: Fallback 0L", eventIds, e);
-            events.forEach(event -> event.setConfirmedRequests(0L));
-        }
-    }
-
-    private void fillConfirmedRequestInModel(EventModel event) {
-        if (event != null && event.getId() != null) {
-            fillConfirmedRequestsInModels(List.of(event));
-        } else if (event != null) {
-            event.setConfirmedRequests(0L);
-        }
-    }
-
     private UserShortDto findExistingUser(Long userId) {
         if (userId == null) {
             throw new BadRequestException("id пользователя не может быть null");
         }
 
         try {
-            return userClient.getUserById(userId);
+            return userLookup.getUserById(userId);
         } catch (FeignException.FeignClientException e) {
             log.warn("Клиентская ошибка (4xx) при получении пользователя id {}: {}", userId, e.getMessage());
             throw new UserOperationFailedException(String.format("Ошибка при получении пользователя по id %d: %s", userId, e.getMessage()));
-        } catch (FeignException e) {
+        } catch (FeignException | StatusRuntimeException e) {
             log.error("Серверная ошибка (5xx) при получении пользователя id {}: {}", userId, e.getMessage(), e);
             throw new UserOperationFailedException(String.format("user-service недоступен для пользователя с id %d", userId));
         }
@@ -1,25 +1,31 @@
 package event.service.events.services.impls;
 
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import event.service.events.cache.EventDetailsCache;
+import event.service.events.enrichment.RatingEnricher;
 import event.service.events.mapper.EventMapper;
 import event.service.events.model.EventModel;
+import event.service.events.pagination.CursorPage;
+import event.service.events.pagination.EventCursor;
+import event.service.events.pagination.OffsetPageRequest;
 import event.service.events.repository.EventRepository;
+import event.service.events.search.GeoFilter;
 import event.service.events.services.PublicService;
-import event.service.feign.client.RequestClient;
-import feign.FeignException;
 import interaction.api.dto.event.EventFullDto;
-import interaction.api.dto.request.ParticipationRequestDto;
 import interaction.api.enums.EventState;
 import interaction.api.exception.BadRequestException;
 import interaction.api.exception.NotFoundException;
+import interaction.api.lookup.RequestLookup;
+import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.AccessLevel;
-import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import stats.client.AnalyzerClient;
 import stats.client.CollectorClient;
 import ru.practicum.grpc.ewm.dashboard.message.RecommendedEventProto;
@@ -27,60 +33,120 @@ import ru.practicum.grpc.ewm.dashboard.message.RecommendedEventProto;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
-@RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 @SuppressWarnings("unused")
 public class PublicServiceImpl implements PublicService {
+    private static final String SORT_VIEWS = "VIEWS";
+    private static final String SORT_DISTANCE = "DISTANCE";
+
     EventRepository eventRepository;
     EventMapper eventMapper;
     JPAQueryFactory jpaQueryFactory;
     AnalyzerClient analyzerClient;
     CollectorClient collectorClient;
-    RequestClient requestClient;
+    RatingEnricher ratingEnricher;
+    RequestLookup requestLookup;
+    EventDetailsCache eventDetailsCache;
+    TransactionTemplate transactionTemplate;
+    Counter recommendationFallbacks;
+
+    public PublicServiceImpl(EventRepository eventRepository, EventMapper eventMapper, JPAQueryFactory jpaQueryFactory,
+                             AnalyzerClient analyzerClient, CollectorClient collectorClient,
+                             RatingEnricher ratingEnricher, RequestLookup requestLookup,
+                             EventDetailsCache eventDetailsCache, TransactionTemplate transactionTemplate,
+                             MeterRegistry meterRegistry) {
+        this.eventRepository = eventRepository;
+        this.eventMapper = eventMapper;
+        this.jpaQueryFactory = jpaQueryFactory;
+        this.analyzerClient = analyzerClient;
+        this.collectorClient = collectorClient;
+        this.ratingEnricher = ratingEnricher;
+        this.requestLookup = requestLookup;
+        this.eventDetailsCache = eventDetailsCache;
+        this.transactionTemplate = transactionTemplate;
+        this.recommendationFallbacks = Counter.builder("event.analyzer.fallbacks")
+                .description("Ответы, собранные без анализатора из запасных данных")
+                .tag("kind", "recommendations")
+                .register(meterRegistry);
+    }
 
     @Transactional(readOnly = true)
-    public List<EventFullDto> getEventsWithFilters(String text, List<Long> categoryIds, Boolean paid,
-                                                   LocalDateTime rangeStart, LocalDateTime rangeEnd, Boolean onlyAvailable, String sort, Integer from,
-                                                   Integer size, HttpServletRequest request) {
+    public CursorPage<EventFullDto> getEventsWithFilters(String text, List<Long> categoryIds, Boolean paid,
+                                                         LocalDateTime rangeStart, LocalDateTime rangeEnd, Boolean onlyAvailable,
+                                                         GeoFilter geo, String sort, Integer from,
+                                                         Integer size, String cursor, HttpServletRequest request) {
 
         log.debug("Вызван метод getEventsWithFilters. Параметры: text='{}', categoryIds={}, paid={}, rangeStart={}, " +
-                  "rangeEnd={}, onlyAvailable={}, sort='{}', from={}, size={}",
-                text, categoryIds, paid, rangeStart, rangeEnd, onlyAvailable, sort, from, size);
+                  "rangeEnd={}, onlyAvailable={}, geo={}, sort='{}', from={}, size={}, cursor='{}'",
+                text, categoryIds, paid, rangeStart, rangeEnd, onlyAvailable, geo != null, sort, from, size, cursor);
 
         if ((rangeStart != null) && (rangeEnd != null) && (rangeStart.isAfter(rangeEnd)))
             throw new BadRequestException("Время начала на может быть позже окончания");
 
-        List<EventModel> events = eventRepository.findAllByFiltersPublic(
-                text, categoryIds, paid, rangeStart, rangeEnd, onlyAvailable, PageRequest.of(from, size));
+        List<EventModel> events;
+        String nextCursor = null;
+
+        if (SORT_DISTANCE.equals(sort) && (geo == null || !geo.hasCenter())) {
+            throw new BadRequestException("Сортировка DISTANCE требует lat, lon и radius");
+        }
 
-        fillConfirmedRequestsInModels(events);
+        if (geo != null) {
+            // -- Поиск рядом пагинируется только через from
+            if (cursor != null) {
+                throw new BadRequestException("Курсор не поддерживается для поиска по расстоянию");
+            }
+            String order = SORT_VIEWS.equals(sort) ? EventCursor.RATING : sort;
+            events = eventRepository.findAllByFiltersPublicNear(text, categoryIds, paid, rangeStart, rangeEnd,
+                    onlyAvailable, geo.getCells(), geo.getMinLat(), geo.getMinLon(), geo.getMaxLat(), geo.getMaxLon(),
+                    geo.getCenterLat(), geo.getCenterLon(), geo.getRadiusKm(), order,
+                    geo.getWrapMinLon(), geo.getWrapMaxLon(), OffsetPageRequest.of(from, size));
+        } else if (SORT_VIEWS.equals(sort) || EventCursor.RATING.equals(sort)) {
+            // -- Популярность — локальная копия рейтинга анализатора, поэтому сортировка и пагинация идут в БД
+            EventCursor after = cursor == null ? null : EventCursor.decode(cursor, EventCursor.RATING);
+            events = eventRepository.findAllByFiltersPublicByRating(text, categoryIds, paid, rangeStart, rangeEnd,
+                    onlyAvailable, EventCursor.ratingOf(after), EventCursor.idOf(after),
+                    OffsetPageRequest.of(cursor == null ? from : 0, size));
+            nextCursor = cursor == null ? null : EventCursor.nextToken(EventCursor.RATING, events, size);
+        } else if (cursor != null) {
+            // -- Режим keyset без сортировки по рейтингу: порядок (eventDate, id), from игнорируется
+            EventCursor after = EventCursor.decode(cursor, EventCursor.EVENT_DATE);
+            events = eventRepository.findAllByFiltersPublicAfter(text, categoryIds, paid, rangeStart, rangeEnd,
+                    onlyAvailable, EventCursor.eventDateOf(after), EventCursor.idOf(after),
+                    OffsetPageRequest.of(0, size));
+            nextCursor = EventCursor.nextToken(EventCursor.EVENT_DATE, events, size);
+        } else if (EventCursor.EVENT_DATE.equals(sort)) {
+            events = eventRepository.findAllByFiltersPublicAfter(text, categoryIds, paid, rangeStart, rangeEnd,
+                    onlyAvailable, null, null, OffsetPageRequest.of(from, size));
+        } else {
+            events = eventRepository.findAllByFiltersPublic(text, categoryIds, paid, rangeStart, rangeEnd,
+                    onlyAvailable, OffsetPageRequest.of(from, size));
+        }
 
         log.debug("Собираем события для ответа");
 
-        return events.stream().
-                map(eventModel -> {
-                    EventFullDto dto = eventMapper.toFullDto(eventModel);
-                    dto.setRating(analyzerClient.getInteractionsCount(List.of(eventModel.getId()))
-                            .map(RecommendedEventProto::getScore)
-                            .findFirst()
-                            .orElse(0.0));
-                    return dto;
-                })
+        List<EventFullDto> result = events.stream()
+                .map(eventMapper::toFullDto)
                 .collect(Collectors.toCollection(ArrayList::new));
+        ratingEnricher.enrichFull(result);
+        return new CursorPage<>(result, nextCursor);
     }
 
-    @Transactional(readOnly = true)
+    // -- Без транзакции: попадание в кэш не занимает соединение с БД, промах загружается в отдельной транзакции
     public EventFullDto getEventById(Long eventId, HttpServletRequest request, Long userId) {
 
         log.debug("Получен запрос на получение события по id");
+        return eventDetailsCache.get(eventId,
+                id -> transactionTemplate.execute(status -> loadPublishedEvent(id)),
+                id -> ratingEnricher.loadRatings(List.of(id)).getOrDefault(id, 0.0),
+                id -> eventRepository.findConfirmedRequestsById(id).orElse(0L));
+    }
+
+    private EventFullDto loadPublishedEvent(Long eventId) {
         EventModel event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new NotFoundException(String.format("Событие с id= %d не было найдено", eventId)));
 
@@ -89,13 +155,7 @@ public class PublicServiceImpl implements PublicService {
         }
 
         log.debug("Собираем событие для ответа");
-        EventFullDto result = eventMapper.toFullDto(event);
-        result.setRating(analyzerClient.getInteractionsCount(List.of(event.getId()))
-                .map(RecommendedEventProto::getScore)
-                .findFirst()
-                .orElse(0.0));
-
-        return result;
+        return eventMapper.toFullDto(event);
     }
 
     @Transactional(readOnly = true)
@@ -108,23 +168,26 @@ public class PublicServiceImpl implements PublicService {
     @Transactional(readOnly = true)
     public List<EventFullDto> getRecommendation(Long userId, Long max) {
         log.info("Получен запрос на рекомендации для пользователя");
-        List<Long> eventIds = analyzerClient.getRecommendationsForUser(userId, max)
-                .map(RecommendedEventProto::getEventId)
-                .toList();
-        List<EventModel> events = eventRepository.findAllByIdIn(eventIds);
-
-        fillConfirmedRequestsInModels(events);
-
-        return events.stream()
-                .map(eventModel -> {
-                    EventFullDto dto = eventMapper.toFullDto(eventModel);
-                    dto.setRating(analyzerClient.getInteractionsCount(List.of(eventModel.getId()))
-                            .map(RecommendedEventProto::getScore)
-                            .findFirst()
-                            .orElse(0.0));
-                    return dto;
-                })
+        List<EventModel> events;
+        try {
+            List<Long> eventIds = analyzerClient.getRecommendationsForUser(userId, max)
+                    .map(RecommendedEventProto::getEventId)
+                    .toList();
+            events = eventRepository.findAllByIdIn(eventIds);
+        } catch (StatusRuntimeException e) {
+            // -- Без анализатора отдаём популярные предстоящие события по сохранённому рейтингу
+            recommendationFallbacks.increment();
+            log.warn("Анализатор недоступен ({}), вместо рекомендаций для пользователя {} отдаём популярные события",
+                    e.getStatus(), userId);
+            events = eventRepository.findAllByFiltersPublicByRating(null, null, null, null, null, false,
+                    null, null, OffsetPageRequest.of(0, Math.toIntExact(max)));
+        }
+
+        List<EventFullDto> result = events.stream()
+                .map(eventMapper::toFullDto)
                 .collect(Collectors.toCollection(ArrayList::new));
+        ratingEnricher.enrichFull(result);
+        return result;
     }
 
     @Override
@@ -132,36 +195,10 @@ public class PublicServiceImpl implements PublicService {
     public void addLike(Long eventId, Long userId) {
         EventModel event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new NotFoundException("Событие не найдено"));
-        if (requestClient.checkRegistration(eventId, userId)) {
+        if (requestLookup.checkRegistration(eventId, userId)) {
             collectorClient.collectUserAction(userId, eventId, "ACTION_LIKE", Instant.now());
         } else {
             throw new NotFoundException("Пользователь не регистрировался на данное событие");
         }
     }
-
-    private void fillConfirmedRequestsInModels(List<EventModel> events) {
-        if (events == null || events.isEmpty()) return;
-
-        List<Long> eventIds = events.stream()
-                .map(EventModel::getId)
-                .filter(Objects::nonNull)
-                .distinct()
-                .toList();
-
-        if (eventIds.isEmpty()) {
-            events.forEach(e -> e.setConfirmedRequests(0L));
-            return;
-        }
-
-        try {
-            Map<Long, List<ParticipationRequestDto>> confirmedMap = requestClient.prepareConfirmedRequests(eventIds);
-            events.forEach(event -> {
-                List<ParticipationRequestDto> reqs = confirmedMap.getOrDefault(event.getId(), Collections.emptyList());
-                event.setConfirmedRequests((long) reqs.size());
-            });
-        } catch (FeignException e) {
-            log.warn("Не удалось заполнить confirmedRequests для eventIds {}: Fallback 0L", eventIds, e);
-            events.forEach(event -> event.setConfirmedRequests(0L));
-        }
-    }
 }
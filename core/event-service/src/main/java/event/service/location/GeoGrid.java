@@ -0,0 +1,68 @@
+package event.service.location;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Равномерная сетка по широте и долготе для поиска событий рядом с точкой без PostGIS.
+ * Номер ячейки хранится в location.grid_cell под B-tree индексом; поиск по области
+ * сводится к перечислению покрывающих её ячеек. Размер ячейки зашит в данные —
+ * после его изменения колонку нужно пересчитать.
+ */
+public final class GeoGrid {
+    public static final double CELL_DEGREES = 0.05;
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+    private static final long COLUMNS = (long) Math.floor(360 / CELL_DEGREES) + 1;
+
+    private GeoGrid() {
+    }
+
+    public static long cellOf(double lat, double lon) {
+        return row(lat) * COLUMNS + column(lon);
+    }
+
+    /**
+     * Ячейки, покрывающие прямоугольник; null, если их больше maxCells —
+     * тогда поиск обходится фильтром по координатам без индекса сетки.
+     */
+    public static List<Long> cellsCovering(double minLat, double minLon, double maxLat, double maxLon, int maxCells) {
+        long firstRow = row(minLat);
+        long lastRow = row(maxLat);
+        long firstColumn = column(minLon);
+        long lastColumn = column(maxLon);
+        if ((lastRow - firstRow + 1) * (lastColumn - firstColumn + 1) > maxCells) {
+            return null;
+        }
+
+        List<Long> cells = new ArrayList<>();
+        for (long row = firstRow; row <= lastRow; row++) {
+            for (long column = firstColumn; column <= lastColumn; column++) {
+                cells.add(row * COLUMNS + column);
+            }
+        }
+        return cells;
+    }
+
+    // -- Полуразмеры прямоугольника, описанного вокруг круга радиусом radiusKm
+    public static double latitudeSpan(double radiusKm) {
+        return radiusKm / KM_PER_DEGREE;
+    }
+
+    public static double longitudeSpan(double lat, double radiusKm) {
+        double cos = Math.cos(Math.toRadians(Math.min(Math.abs(lat) + latitudeSpan(radiusKm), 89.9)));
+        return Math.min(radiusKm / (KM_PER_DEGREE * cos), 180);
+    }
+
+    private static long row(double lat) {
+        return (long) Math.floor((clamp(lat, -90, 90) + 90) / CELL_DEGREES);
+    }
+
+    private static long column(double lon) {
+        return (long) Math.floor((clamp(lon, -180, 180) + 180) / CELL_DEGREES);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
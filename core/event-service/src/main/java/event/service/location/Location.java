@@ -5,6 +5,9 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
@@ -21,7 +24,9 @@ import lombok.experimental.FieldDefaults;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class Location {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // -- Последовательность с шагом 50: Hibernate выдаёт id пачками, и вставки группируются в JDBC batch
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "location_seq")
+    @SequenceGenerator(name = "location_seq", sequenceName = "location_seq", allocationSize = 50)
     Long id;
 
     @NotNull(message = "Широта не может быть пустой")
@@ -35,4 +40,14 @@ public class Location {
     @DecimalMax(value = "180.0", message = "Долгота должна быть <= 180")
     @Column(name = "lon")
     Double lon;
+
+    // -- Ячейка GeoGrid для поиска по расстоянию, вычисляется из координат
+    @Column(name = "grid_cell", nullable = false)
+    Long gridCell;
+
+    @PrePersist
+    @PreUpdate
+    void updateGridCell() {
+        gridCell = GeoGrid.cellOf(lat, lon);
+    }
 }
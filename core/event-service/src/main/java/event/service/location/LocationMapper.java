@@ -9,5 +9,6 @@ public interface LocationMapper {
     LocationDto toDto(Location location);
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "gridCell", ignore = true)
     Location toEntity(LocationDto locationDto);
 }
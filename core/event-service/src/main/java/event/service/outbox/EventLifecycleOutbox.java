@@ -0,0 +1,85 @@
+package event.service.outbox;
+
+import event.service.events.model.EventModel;
+import jakarta.persistence.EntityManager;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.ewm.stats.avro.EventLifecycleAvro;
+import ru.practicum.ewm.stats.avro.EventLifecycleStateAvro;
+import ru.practicum.kafka.serializer.GeneralAvroSerializer;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Запись изменений жизненного цикла события в outbox. Вызывается внутри транзакции,
+ * изменяющей событие: сообщение фиксируется или откатывается вместе с ним.
+ * Сообщения вставляются в конце транзакции, после записи самих событий, — см. OutboxMessage.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class EventLifecycleOutbox {
+    OutboxRepository outboxRepository;
+    EntityManager entityManager;
+    GeneralAvroSerializer serializer = new GeneralAvroSerializer();
+    String topic;
+
+    public EventLifecycleOutbox(OutboxRepository outboxRepository,
+                                EntityManager entityManager,
+                                @Value("${spring.kafka.producer.topic.event-lifecycle}") String topic) {
+        this.outboxRepository = outboxRepository;
+        this.entityManager = entityManager;
+        this.topic = topic;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void stateChanged(EventModel event) {
+        EventLifecycleAvro message = EventLifecycleAvro.newBuilder()
+                .setEventId(event.getId())
+                .setState(EventLifecycleStateAvro.valueOf(event.getState().name()))
+                .setEventDate(event.getEventDate().atZone(ZoneId.systemDefault()).toInstant())
+                .setChangedAt(Instant.now())
+                .build();
+
+        pendingMessages().add(OutboxMessage.builder()
+                .topic(topic)
+                .messageKey(String.valueOf(event.getId()))
+                .payload(serializer.serialize(topic, message))
+                .build());
+    }
+
+    private List<OutboxMessage> pendingMessages() {
+        @SuppressWarnings("unchecked")
+        List<OutboxMessage> pending = (List<OutboxMessage>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+
+        List<OutboxMessage> created = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                // -- Сначала изменения событий: UPDATE берёт блокировку строки события,
+                // -- и сообщение следующей транзакции по этому событию получит более поздний created_on
+                entityManager.flush();
+                outboxRepository.saveAll(created);
+                outboxRepository.flush();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(EventLifecycleOutbox.this);
+            }
+        });
+        return created;
+    }
+}
@@ -0,0 +1,55 @@
+package event.service.outbox;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+
+/**
+ * Сообщение, записанное в одной транзакции с изменением данных и ожидающее отправки в Kafka.
+ * Порядок отправки — по (created_on, id). id выдаются пачками из последовательности и не отражают
+ * порядок фиксации транзакций, поэтому порядок задаёт created_on: его ставит БД (clock_timestamp())
+ * в момент вставки, а вставка идёт в конце транзакции, после UPDATE события под блокировкой строки.
+ * Следующая транзакция по тому же событию вставит сообщение только после фиксации предыдущей,
+ * поэтому relay не увидит её сообщение раньше предыдущего, и сообщения одного события уходят
+ * в порядке фиксации.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "event_outbox")
+public class OutboxMessage {
+    @Id
+    // -- Последовательность с шагом 50, как у event_seq: вставки outbox группируются в JDBC batch
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "event_outbox_seq")
+    @SequenceGenerator(name = "event_outbox_seq", sequenceName = "event_outbox_seq", allocationSize = 50)
+    Long id;
+
+    @Column(name = "topic", nullable = false)
+    String topic;
+
+    @Column(name = "message_key", nullable = false)
+    String messageKey;
+
+    @Column(name = "payload", nullable = false)
+    byte[] payload;
+
+    @Column(name = "created_on", insertable = false, updatable = false)
+    Instant createdOn;
+}
@@ -0,0 +1,134 @@
+package event.service.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Фоновая отправка outbox в Kafka пачками. Пачка отправляется и удаляется в одной транзакции
+ * под advisory-блокировкой, поэтому при нескольких экземплярах порядок не нарушается.
+ * Незафиксированные сообщения с меньшим created_on уйдут следующей пачкой; это допустимо,
+ * потому что они относятся к другим событиям (см. OutboxMessage), а порядок нужен только в пределах ключа.
+ * Если отправка не подтверждена, транзакция откатывается и пачка уйдёт повторно:
+ * доставка «хотя бы один раз», получатели должны быть идемпотентны.
+ */
+@Component
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class OutboxRelay {
+    // -- Ключ advisory-блокировки relay в БД event-service
+    private static final long RELAY_LOCK_KEY = 0x6f7574626f78L;
+
+    OutboxRepository outboxRepository;
+    TransactionTemplate transactionTemplate;
+    DefaultKafkaProducerFactory<String, byte[]> producerFactory;
+    KafkaTemplate<String, byte[]> kafkaTemplate;
+    int batchSize;
+    Duration sendTimeout;
+    Counter relayed;
+    Counter failures;
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+                       @Value("${event-service.outbox.batch-size:500}") int batchSize,
+                       @Value("${event-service.outbox.send-timeout:PT10S}") Duration sendTimeout) {
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+
+        // -- Идемпотентный продюсер сохраняет порядок внутри партиции и при повторах отправки
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.CLIENT_ID_CONFIG, "event-service-outbox");
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        this.producerFactory = new DefaultKafkaProducerFactory<>(props, new StringSerializer(), new ByteArraySerializer());
+        this.kafkaTemplate = new KafkaTemplate<>(producerFactory);
+
+        this.relayed = Counter.builder("event.outbox.relayed")
+                .description("Сообщения outbox, отправленные в Kafka")
+                .register(meterRegistry);
+        this.failures = Counter.builder("event.outbox.failures")
+                .description("Пачки outbox, отправка которых не удалась")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${event-service.outbox.relay-interval:PT1S}")
+    public void relay() {
+        try {
+            Integer sent;
+            do {
+                sent = transactionTemplate.execute(status -> relayBatch());
+            } while (sent != null && sent == batchSize);
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Не удалось отправить пачку outbox, повтор при следующем запуске: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        producerFactory.destroy();
+    }
+
+    private int relayBatch() {
+        if (!outboxRepository.tryLock(RELAY_LOCK_KEY)) {
+            return 0;
+        }
+
+        List<OutboxMessage> batch = outboxRepository.findBatch(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<?>> acks = new ArrayList<>(batch.size());
+        for (OutboxMessage message : batch) {
+            acks.add(kafkaTemplate.send(new ProducerRecord<>(message.getTopic(), message.getMessageKey(),
+                    message.getPayload())));
+        }
+        kafkaTemplate.flush();
+
+        try {
+            CompletableFuture.allOf(acks.toArray(CompletableFuture[]::new))
+                    .get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Отправка пачки outbox прервана", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Kafka не подтвердила пачку outbox из " + batch.size() + " сообщений", e);
+        }
+
+        outboxRepository.deleteAllInBatch(batch);
+        relayed.increment(batch.size());
+        log.debug("Отправлено {} сообщений outbox", batch.size());
+        return batch.size();
+    }
+}
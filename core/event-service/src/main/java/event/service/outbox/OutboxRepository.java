@@ -0,0 +1,18 @@
+package event.service.outbox;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface OutboxRepository extends JpaRepository<OutboxMessage, Long> {
+    // -- Порядок фиксации, см. OutboxMessage; индекс idx_event_outbox_order
+    @Query("SELECT m FROM OutboxMessage AS m ORDER BY m.createdOn, m.id")
+    List<OutboxMessage> findBatch(Pageable pageable);
+
+    // -- Блокировка снимается вместе с транзакцией; в каждый момент outbox разбирает один экземпляр
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryLock(@Param("key") long key);
+}
@@ -3,20 +3,33 @@ DROP TABLE IF EXISTS categories CASCADE;
 DROP TABLE IF EXISTS event CASCADE;
 DROP TABLE IF EXISTS compilations CASCADE;
 DROP TABLE IF EXISTS compilation_event CASCADE;
+DROP TABLE IF EXISTS event_outbox CASCADE;
+DROP SEQUENCE IF EXISTS location_seq;
+DROP SEQUENCE IF EXISTS event_seq;
+DROP SEQUENCE IF EXISTS event_outbox_seq;
+
+-- Шаг совпадает с allocationSize в @SequenceGenerator сущностей
+CREATE SEQUENCE IF NOT EXISTS location_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS event_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS event_outbox_seq INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS location (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT DEFAULT nextval('location_seq') PRIMARY KEY,
     lat FLOAT NOT NULL,
-    lon FLOAT NOT NULL
+    lon FLOAT NOT NULL,
+    grid_cell BIGINT NOT NULL
 );
 
+-- Ячейка GeoGrid для поиска событий рядом; размер ячейки задан в GeoGrid.CELL_DEGREES
+CREATE INDEX IF NOT EXISTS idx_location_grid_cell ON location (grid_cell);
+
 CREATE TABLE IF NOT EXISTS categories (
   id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
   name VARCHAR(50) NOT NULL UNIQUE
 );
 
 CREATE TABLE IF NOT EXISTS event (
-  id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+  id BIGINT DEFAULT nextval('event_seq') PRIMARY KEY,
   annotation VARCHAR(2000) NOT NULL,
   category_id BIGINT NOT NULL,
   description VARCHAR(7000) NOT NULL,
@@ -24,6 +37,9 @@ CREATE TABLE IF NOT EXISTS event (
   paid BOOLEAN DEFAULT FALSE,
   participant_limit INTEGER DEFAULT 0,
   confirmed_requests BIGINT DEFAULT 0,
+  confirmed_requests_updated_on TIMESTAMP WITH TIME ZONE,
+  rating DOUBLE PRECISION NOT NULL DEFAULT 0,
+  rating_updated_on TIMESTAMP WITH TIME ZONE,
   request_moderation BOOLEAN DEFAULT TRUE,
   title VARCHAR(120) NOT NULL,
   initiator_id BIGINT NOT NULL,
@@ -37,6 +53,21 @@ CREATE TABLE IF NOT EXISTS event (
      ON UPDATE CASCADE ON DELETE CASCADE
 );
 
+-- Индексы под порядок keyset-пагинации: публичный поиск (по дате и по рейтингу), поиск администратора
+-- и события пользователя
+CREATE INDEX IF NOT EXISTS idx_event_state_date ON event (state, event_date, id);
+CREATE INDEX IF NOT EXISTS idx_event_date ON event (event_date, id);
+CREATE INDEX IF NOT EXISTS idx_event_state_rating ON event (state, rating DESC, id);
+CREATE INDEX IF NOT EXISTS idx_event_initiator_date ON event (initiator_id, event_date DESC, id DESC);
+-- Переход от найденных по сетке локаций к событиям
+CREATE INDEX IF NOT EXISTS idx_event_location ON event (location_id);
+
+-- Поиск по тексту (ILIKE '%...%') без полного прохода по таблице; образцы короче трёх символов
+-- индекс не сужает
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_event_annotation_trgm ON event USING GIN (annotation gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_event_description_trgm ON event USING GIN (description gin_trgm_ops);
+
 CREATE TABLE IF NOT EXISTS compilations (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     pinned BOOLEAN,
@@ -55,4 +86,16 @@ CREATE TABLE IF NOT EXISTS compilation_event (
         FOREIGN KEY (event_id) REFERENCES event(id)
         ON UPDATE CASCADE
         ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+-- Outbox: сообщения пишутся в транзакции изменения события и отправляются OutboxRelay в порядке
+-- (created_on, id). clock_timestamp(), а не now(): нужно время вставки, а не начала транзакции
+CREATE TABLE IF NOT EXISTS event_outbox (
+    id BIGINT DEFAULT nextval('event_outbox_seq') PRIMARY KEY,
+    topic VARCHAR(255) NOT NULL,
+    message_key VARCHAR(255) NOT NULL,
+    payload BYTEA NOT NULL,
+    created_on TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT clock_timestamp()
+);
+
+CREATE INDEX IF NOT EXISTS idx_event_outbox_order ON event_outbox (created_on, id);
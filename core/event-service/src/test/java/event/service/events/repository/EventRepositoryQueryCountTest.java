@@ -0,0 +1,131 @@
+package event.service.events.repository;
+
+import event.service.events.model.EventModel;
+import event.service.events.pagination.OffsetPageRequest;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+
+/**
+ * Списки событий читают категорию и локацию тем же запросом (граф WITH_CATEGORY_AND_LOCATION):
+ * число запросов к БД не должно зависеть от размера страницы.
+ */
+@DataJpaTest
+@AutoConfigureEmbeddedDatabase(provider = ZONKY)
+class EventRepositoryQueryCountTest {
+    private static final long INITIATOR_ID = 1L;
+    private static final int EVENTS = 30;
+
+    // -- Вложенная конфигурация вместо EventServiceApp: её @ComponentScan поднял бы весь сервис
+    @SpringBootConfiguration
+    @EntityScan(basePackages = "event.service")
+    @EnableJpaRepositories(basePackageClasses = EventRepository.class)
+    static class JpaConfig {
+    }
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void insertEvents() {
+        // -- У каждого события своя категория и локация, иначе ленивая загрузка попала бы в кэш сессии
+        for (int i = 0; i < EVENTS; i++) {
+            Long categoryId = jdbcTemplate.queryForObject(
+                    "INSERT INTO categories (name) VALUES (?) RETURNING id", Long.class, "category-" + i);
+            Long locationId = jdbcTemplate.queryForObject(
+                    "INSERT INTO location (lat, lon, grid_cell) VALUES (?, ?, 0) RETURNING id", Long.class, i, i);
+            jdbcTemplate.update("""
+                            INSERT INTO event (annotation, category_id, description, event_date, title,
+                                               initiator_id, location_id, state, published_on)
+                            VALUES ('annotation', ?, 'description', ?, 'title', ?, ?, 'PUBLISHED', now())
+                            """,
+                    categoryId, LocalDateTime.now().plusDays(i + 1), INITIATOR_ID, locationId);
+        }
+    }
+
+    @Test
+    void publicSearchStatementCountDoesNotGrowWithPageSize() {
+        assertConstantStatementCount(size -> eventRepository.findAllByFiltersPublic(
+                null, null, null, null, null, false, OffsetPageRequest.of(0, size)));
+    }
+
+    @Test
+    void publicSearchAfterCursorStatementCountDoesNotGrowWithPageSize() {
+        assertConstantStatementCount(size -> eventRepository.findAllByFiltersPublicAfter(
+                null, null, null, null, null, false, null, null, OffsetPageRequest.of(0, size)));
+    }
+
+    @Test
+    void publicSearchByRatingStatementCountDoesNotGrowWithPageSize() {
+        assertConstantStatementCount(size -> eventRepository.findAllByFiltersPublicByRating(
+                null, null, null, null, null, false, null, null, OffsetPageRequest.of(0, size)));
+    }
+
+    @Test
+    void adminSearchStatementCountDoesNotGrowWithPageSize() {
+        assertConstantStatementCount(size -> eventRepository.findAllByFiltersAdmin(
+                null, null, null, null, null, null, null, OffsetPageRequest.of(0, size)));
+    }
+
+    @Test
+    void initiatorEventsStatementCountDoesNotGrowWithPageSize() {
+        assertConstantStatementCount(size -> eventRepository.findByInitiatorIdBefore(
+                INITIATOR_ID, null, null, PageRequest.of(0, size)));
+    }
+
+    @Test
+    void eventsByIdsStatementCountDoesNotGrowWithPageSize() {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM event ORDER BY id", Long.class);
+        assertConstantStatementCount(size -> eventRepository.findAllByIdIn(ids.subList(0, size)));
+    }
+
+    private void assertConstantStatementCount(IntFunction<List<EventModel>> query) {
+        long small = countStatements(query, 1);
+        long large = countStatements(query, EVENTS);
+
+        assertThat(large).isEqualTo(small);
+    }
+
+    private long countStatements(IntFunction<List<EventModel>> query, int size) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<EventModel> events = query.apply(size);
+        assertThat(events).hasSize(size);
+        // -- Обращение к полям, как при маппинге в DTO: без графа здесь были бы запросы на каждое событие
+        events.forEach(event -> {
+            assertThat(event.getCategory().getName()).isNotNull();
+            assertThat(event.getLocation().getLat()).isNotNull();
+        });
+
+        return statistics.getPrepareStatementCount();
+    }
+}
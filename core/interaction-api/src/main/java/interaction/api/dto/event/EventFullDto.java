@@ -17,7 +17,7 @@ import java.time.LocalDateTime;
 import static interaction.api.utility.AppConstants.DATE_TIME_FORMAT;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
@@ -0,0 +1,24 @@
+package interaction.api.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Текущее число подтверждённых заявок события. Передаётся абсолютное значение, а не приращение,
+ * поэтому повторная доставка безопасна, а устаревшие сообщения отбрасываются по countedAt.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConfirmedRequestsChangedDto {
+    private Long eventId;
+
+    private Long confirmedRequests;
+
+    private Instant countedAt;
+}
@@ -0,0 +1,24 @@
+package interaction.api.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Число подтверждённых заявок по событиям и момент подсчёта по часам request-service.
+ * countedAt сравнивается с countedAt из сообщений Kafka, поэтому оба берутся из одного источника времени.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConfirmedRequestsCountsDto {
+    // -- События без подтверждённых заявок не передаются, их значение — 0
+    private Map<Long, Long> counts;
+
+    private Instant countedAt;
+}
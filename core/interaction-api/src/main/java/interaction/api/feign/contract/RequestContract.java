@@ -1,6 +1,7 @@
 package interaction.api.feign.contract;
 
 import interaction.api.dto.request.BulkRequestStatusUpdateCommand;
+import interaction.api.dto.request.ConfirmedRequestsCountsDto;
 import interaction.api.dto.request.EventRequestStatusUpdateResultDto;
 import interaction.api.dto.request.ParticipationRequestDto;
 import jakarta.validation.constraints.Positive;
@@ -32,6 +33,9 @@ public interface RequestContract {
     @GetMapping("/users/requests/confirmed")
     Map<Long, List<ParticipationRequestDto>> prepareConfirmedRequests(@RequestParam List<Long> eventIds);
 
+    @GetMapping("/users/requests/confirmed/count")
+    ConfirmedRequestsCountsDto countConfirmedRequests(@RequestParam List<Long> eventIds);
+
     @GetMapping("/users/requests/confirmed/{eventId}/{userId}")
     Boolean checkRegistration(@PathVariable Long eventId, @PathVariable Long userId);
 }
@@ -0,0 +1,172 @@
+package interaction.api.grpc;
+
+import com.google.protobuf.Timestamp;
+import interaction.api.dto.category.CategoryDto;
+import interaction.api.dto.event.EventFullDto;
+import interaction.api.dto.location.LocationDto;
+import interaction.api.dto.request.ConfirmedRequestsCountsDto;
+import interaction.api.dto.request.ParticipationRequestDto;
+import interaction.api.dto.user.UserDto;
+import interaction.api.dto.user.UserShortDto;
+import interaction.api.enums.EventState;
+import interaction.api.enums.RequestStatus;
+import ru.practicum.grpc.ewm.core.message.ConfirmedCountsProto;
+import ru.practicum.grpc.ewm.core.message.EventFullProto;
+import ru.practicum.grpc.ewm.core.message.EventStateProto;
+import ru.practicum.grpc.ewm.core.message.ParticipationRequestListProto;
+import ru.practicum.grpc.ewm.core.message.ParticipationRequestProto;
+import ru.practicum.grpc.ewm.core.message.RequestStatusProto;
+import ru.practicum.grpc.ewm.core.message.UserProto;
+import ru.practicum.grpc.ewm.core.message.UserShortProto;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Преобразование DTO внутренних контрактов в protobuf и обратно.
+ * Необязательные поля DTO передаются через optional/has-поля, чтобы null не превращался в 0.
+ */
+public final class CoreProtoMapper {
+    private CoreProtoMapper() {
+    }
+
+    public static UserShortProto toProto(UserShortDto user) {
+        return UserShortProto.newBuilder()
+                .setId(user.getId())
+                .setName(user.getName())
+                .build();
+    }
+
+    public static UserShortDto fromProto(UserShortProto proto) {
+        return new UserShortDto(proto.getId(), proto.getName());
+    }
+
+    public static UserProto toProto(UserDto user) {
+        return UserProto.newBuilder()
+                .setId(user.getId())
+                .setName(user.getName())
+                .setEmail(user.getEmail())
+                .build();
+    }
+
+    public static UserDto fromProto(UserProto proto) {
+        return new UserDto(proto.getId(), proto.getName(), proto.getEmail());
+    }
+
+    public static EventFullProto toProto(EventFullDto event) {
+        EventFullProto.Builder builder = EventFullProto.newBuilder()
+                .setId(event.getId())
+                .setAnnotation(event.getAnnotation())
+                .setCategoryId(event.getCategoryDto().getId())
+                .setCategoryName(event.getCategoryDto().getName())
+                .setCreatedOn(toTimestamp(event.getCreatedOn()))
+                .setDescription(event.getDescription())
+                .setEventDate(toTimestamp(event.getEventDate()))
+                .setInitiator(event.getInitiator())
+                .setLat(event.getLocationDto().getLat())
+                .setLon(event.getLocationDto().getLon())
+                .setPaid(event.getPaid())
+                .setParticipantLimit(event.getParticipantLimit())
+                .setRequestModeration(event.getRequestModeration())
+                .setState(EventStateProto.valueOf("EVENT_STATE_" + event.getState().name()))
+                .setTitle(event.getTitle());
+        if (event.getConfirmedRequests() != null) {
+            builder.setConfirmedRequests(event.getConfirmedRequests());
+        }
+        if (event.getPublishedOn() != null) {
+            builder.setPublishedOn(toTimestamp(event.getPublishedOn()));
+        }
+        if (event.getRating() != null) {
+            builder.setRating(event.getRating());
+        }
+        return builder.build();
+    }
+
+    public static EventFullDto fromProto(EventFullProto proto) {
+        return EventFullDto.builder()
+                .id(proto.getId())
+                .annotation(proto.getAnnotation())
+                .categoryDto(new CategoryDto(proto.getCategoryId(), proto.getCategoryName()))
+                .confirmedRequests(proto.hasConfirmedRequests() ? proto.getConfirmedRequests() : null)
+                .createdOn(toLocalDateTime(proto.getCreatedOn()))
+                .description(proto.getDescription())
+                .eventDate(toLocalDateTime(proto.getEventDate()))
+                .initiator(proto.getInitiator())
+                .locationDto(new LocationDto(proto.getLat(), proto.getLon()))
+                .paid(proto.getPaid())
+                .participantLimit(proto.getParticipantLimit())
+                .publishedOn(proto.hasPublishedOn() ? toLocalDateTime(proto.getPublishedOn()) : null)
+                .requestModeration(proto.getRequestModeration())
+                .state(EventState.valueOf(proto.getState().name().substring("EVENT_STATE_".length())))
+                .title(proto.getTitle())
+                .rating(proto.hasRating() ? proto.getRating() : null)
+                .build();
+    }
+
+    public static ParticipationRequestProto toProto(ParticipationRequestDto request) {
+        return ParticipationRequestProto.newBuilder()
+                .setId(request.getId())
+                .setCreated(toTimestamp(request.getCreated()))
+                .setEventId(request.getEventId())
+                .setRequesterId(request.getRequesterId())
+                .setStatus(RequestStatusProto.valueOf("REQUEST_STATUS_" + request.getStatus().name()))
+                .build();
+    }
+
+    public static ParticipationRequestDto fromProto(ParticipationRequestProto proto) {
+        return new ParticipationRequestDto(
+                proto.getId(),
+                toLocalDateTime(proto.getCreated()),
+                proto.getEventId(),
+                proto.getRequesterId(),
+                RequestStatus.valueOf(proto.getStatus().name().substring("REQUEST_STATUS_".length())));
+    }
+
+    public static ParticipationRequestListProto toProto(List<ParticipationRequestDto> requests) {
+        ParticipationRequestListProto.Builder builder = ParticipationRequestListProto.newBuilder();
+        requests.forEach(request -> builder.addRequest(toProto(request)));
+        return builder.build();
+    }
+
+    public static List<ParticipationRequestDto> fromProto(ParticipationRequestListProto proto) {
+        return proto.getRequestList().stream()
+                .map(CoreProtoMapper::fromProto)
+                .toList();
+    }
+
+    public static ConfirmedCountsProto toProto(ConfirmedRequestsCountsDto counts) {
+        return ConfirmedCountsProto.newBuilder()
+                .putAllCounts(counts.getCounts())
+                .setCountedAt(toTimestamp(counts.getCountedAt()))
+                .build();
+    }
+
+    public static ConfirmedRequestsCountsDto fromProto(ConfirmedCountsProto proto) {
+        return new ConfirmedRequestsCountsDto(new HashMap<>(proto.getCountsMap()), toInstant(proto.getCountedAt()));
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime dateTime) {
+        return Timestamp.newBuilder()
+                .setSeconds(dateTime.toEpochSecond(ZoneOffset.UTC))
+                .setNanos(dateTime.getNano())
+                .build();
+    }
+
+    private static Timestamp toTimestamp(Instant instant) {
+        return Timestamp.newBuilder()
+                .setSeconds(instant.getEpochSecond())
+                .setNanos(instant.getNano())
+                .build();
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return Instant.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos());
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return LocalDateTime.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos(), ZoneOffset.UTC);
+    }
+}
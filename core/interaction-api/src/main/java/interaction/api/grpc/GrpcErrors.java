@@ -0,0 +1,40 @@
+package interaction.api.grpc;
+
+import interaction.api.exception.BadRequestException;
+import interaction.api.exception.ConflictException;
+import interaction.api.exception.NotFoundException;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+
+/**
+ * Соответствие исключений сервисов и статусов gRPC: те же правила, что у FeignErrorDecoder для HTTP.
+ * Остальные статусы клиент получает как StatusRuntimeException, аналог FeignException для 5xx.
+ */
+public final class GrpcErrors {
+    private GrpcErrors() {
+    }
+
+    public static StatusRuntimeException toStatus(RuntimeException e) {
+        Status status;
+        if (e instanceof NotFoundException) {
+            status = Status.NOT_FOUND;
+        } else if (e instanceof ConflictException) {
+            status = Status.FAILED_PRECONDITION;
+        } else if (e instanceof BadRequestException) {
+            status = Status.INVALID_ARGUMENT;
+        } else {
+            status = Status.INTERNAL;
+        }
+        return status.withDescription(e.getMessage()).withCause(e).asRuntimeException();
+    }
+
+    public static RuntimeException fromStatus(StatusRuntimeException e) {
+        String message = e.getStatus().getDescription();
+        return switch (e.getStatus().getCode()) {
+            case NOT_FOUND -> new NotFoundException(message);
+            case FAILED_PRECONDITION -> new ConflictException(message);
+            case INVALID_ARGUMENT -> new BadRequestException(message);
+            default -> e;
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package interaction.api.lookup;
+
+import interaction.api.dto.event.EventFullDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Duration;
+
+/**
+ * Одновременные запросы одного события разделяют один вызов event-service.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CoalescingEventLookup implements EventLookup {
+    EventLookup delegate;
+    SingleFlight<Long, EventFullDto> eventById;
+
+    public CoalescingEventLookup(EventLookup delegate, Duration memoTtl, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.eventById = new SingleFlight<>("event-service.getEvent", memoTtl, meterRegistry);
+    }
+
+    @Override
+    public EventFullDto getEvent(Long eventId) {
+        return eventById.execute(eventId, () -> delegate.getEvent(eventId));
+    }
+}
@@ -0,0 +1,35 @@
+package interaction.api.lookup;
+
+import interaction.api.dto.user.UserDto;
+import interaction.api.dto.user.UserShortDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Одновременные запросы одного пользователя по id разделяют один вызов user-service.
+ * Пакетные запросы передаются как есть: наборы id почти не повторяются.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CoalescingUserLookup implements UserLookup {
+    UserLookup delegate;
+    SingleFlight<Long, UserShortDto> userById;
+
+    public CoalescingUserLookup(UserLookup delegate, Duration memoTtl, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.userById = new SingleFlight<>("user-service.getUserById", memoTtl, meterRegistry);
+    }
+
+    @Override
+    public UserShortDto getUserById(Long userId) {
+        return userById.execute(userId, () -> delegate.getUserById(userId));
+    }
+
+    @Override
+    public List<UserDto> getUsersByIds(List<Long> userIds) {
+        return delegate.getUsersByIds(userIds);
+    }
+}
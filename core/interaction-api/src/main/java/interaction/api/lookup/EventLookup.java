@@ -0,0 +1,10 @@
+package interaction.api.lookup;
+
+import interaction.api.dto.event.EventFullDto;
+
+/**
+ * Чтение событий из event-service. Транспорт (Feign или gRPC) выбирается настройкой клиента.
+ */
+public interface EventLookup {
+    EventFullDto getEvent(Long eventId);
+}
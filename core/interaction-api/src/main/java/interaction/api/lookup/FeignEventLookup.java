@@ -0,0 +1,18 @@
+package interaction.api.lookup;
+
+import interaction.api.dto.event.EventFullDto;
+import interaction.api.feign.contract.EventContract;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class FeignEventLookup implements EventLookup {
+    EventContract eventClient;
+
+    @Override
+    public EventFullDto getEvent(Long eventId) {
+        return eventClient.getEvent(eventId);
+    }
+}
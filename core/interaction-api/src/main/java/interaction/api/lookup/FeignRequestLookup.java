@@ -0,0 +1,32 @@
+package interaction.api.lookup;
+
+import interaction.api.dto.request.ConfirmedRequestsCountsDto;
+import interaction.api.dto.request.ParticipationRequestDto;
+import interaction.api.feign.contract.RequestContract;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class FeignRequestLookup implements RequestLookup {
+    RequestContract requestClient;
+
+    @Override
+    public Map<Long, List<ParticipationRequestDto>> prepareConfirmedRequests(List<Long> eventIds) {
+        return requestClient.prepareConfirmedRequests(eventIds);
+    }
+
+    @Override
+    public ConfirmedRequestsCountsDto countConfirmedRequests(List<Long> eventIds) {
+        return requestClient.countConfirmedRequests(eventIds);
+    }
+
+    @Override
+    public boolean checkRegistration(Long eventId, Long userId) {
+        return Boolean.TRUE.equals(requestClient.checkRegistration(eventId, userId));
+    }
+}
@@ -0,0 +1,26 @@
+package interaction.api.lookup;
+
+import interaction.api.dto.user.UserDto;
+import interaction.api.dto.user.UserShortDto;
+import interaction.api.feign.contract.UserContract;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class FeignUserLookup implements UserLookup {
+    UserContract userClient;
+
+    @Override
+    public UserShortDto getUserById(Long userId) {
+        return userClient.getUserById(userId);
+    }
+
+    @Override
+    public List<UserDto> getUsersByIds(List<Long> userIds) {
+        return userClient.getUsers(userIds, 0, userIds.size());
+    }
+}
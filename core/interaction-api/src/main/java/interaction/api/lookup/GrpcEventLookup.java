@@ -0,0 +1,31 @@
+package interaction.api.lookup;
+
+import interaction.api.dto.event.EventFullDto;
+import interaction.api.grpc.CoreProtoMapper;
+import interaction.api.grpc.GrpcErrors;
+import io.grpc.StatusRuntimeException;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.grpc.ewm.core.lookup.EventLookupGrpc;
+import ru.practicum.grpc.ewm.core.message.EventIdProto;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class GrpcEventLookup implements EventLookup {
+    EventLookupGrpc.EventLookupBlockingStub stub;
+    Duration deadline;
+
+    @Override
+    public EventFullDto getEvent(Long eventId) {
+        try {
+            return CoreProtoMapper.fromProto(stub.withDeadlineAfter(deadline.toMillis(), TimeUnit.MILLISECONDS)
+                    .getEvent(EventIdProto.newBuilder().setEventId(eventId).build()));
+        } catch (StatusRuntimeException e) {
+            throw GrpcErrors.fromStatus(e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package interaction.api.lookup;
+
+import interaction.api.dto.request.ConfirmedRequestsCountsDto;
+import interaction.api.dto.request.ParticipationRequestDto;
+import interaction.api.grpc.CoreProtoMapper;
+import interaction.api.grpc.GrpcErrors;
+import io.grpc.StatusRuntimeException;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.grpc.ewm.core.lookup.RequestLookupGrpc;
+import ru.practicum.grpc.ewm.core.message.EventIdsProto;
+import ru.practicum.grpc.ewm.core.message.RegistrationCheckProto;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class GrpcRequestLookup implements RequestLookup {
+    RequestLookupGrpc.RequestLookupBlockingStub stub;
+    Duration deadline;
+
+    @Override
+    public Map<Long, List<ParticipationRequestDto>> prepareConfirmedRequests(List<Long> eventIds) {
+        try {
+            Map<Long, List<ParticipationRequestDto>> result = new HashMap<>();
+            withDeadline().prepareConfirmedRequests(EventIdsProto.newBuilder().addAllEventId(eventIds).build())
+                    .getRequestsMap()
+                    .forEach((eventId, requests) -> result.put(eventId, CoreProtoMapper.fromProto(requests)));
+            return result;
+        } catch (StatusRuntimeException e) {
+            throw GrpcErrors.fromStatus(e);
+        }
+    }
+
+    @Override
+    public ConfirmedRequestsCountsDto countConfirmedRequests(List<Long> eventIds) {
+        try {
+            return CoreProtoMapper.fromProto(withDeadline()
+                    .countConfirmedRequests(EventIdsProto.newBuilder().addAllEventId(eventIds).build()));
+        } catch (StatusRuntimeException e) {
+            throw GrpcErrors.fromStatus(e);
+        }
+    }
+
+    @Override
+    public boolean checkRegistration(Long eventId, Long userId) {
+        try {
+            return withDeadline().checkRegistration(RegistrationCheckProto.newBuilder()
+                            .setEventId(eventId)
+                            .setUserId(userId)
+                            .build())
+                    .getRegistered();
+        } catch (StatusRuntimeException e) {
+            throw GrpcErrors.fromStatus(e);
+        }
+    }
+
+    private RequestLookupGrpc.RequestLookupBlockingStub withDeadline() {
+        return stub.withDeadlineAfter(deadline.toMillis(), TimeUnit.MILLISECONDS);
+    }
+}
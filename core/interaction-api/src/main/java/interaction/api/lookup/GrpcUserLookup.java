@@ -0,0 +1,50 @@
+package interaction.api.lookup;
+
+import interaction.api.dto.user.UserDto;
+import interaction.api.dto.user.UserShortDto;
+import interaction.api.grpc.CoreProtoMapper;
+import interaction.api.grpc.GrpcErrors;
+import io.grpc.StatusRuntimeException;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.grpc.ewm.core.lookup.UserLookupGrpc;
+import ru.practicum.grpc.ewm.core.message.UserIdProto;
+import ru.practicum.grpc.ewm.core.message.UserIdsProto;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class GrpcUserLookup implements UserLookup {
+    UserLookupGrpc.UserLookupBlockingStub stub;
+    Duration deadline;
+
+    @Override
+    public UserShortDto getUserById(Long userId) {
+        try {
+            return CoreProtoMapper.fromProto(withDeadline().getUserById(
+                    UserIdProto.newBuilder().setUserId(userId).build()));
+        } catch (StatusRuntimeException e) {
+            throw GrpcErrors.fromStatus(e);
+        }
+    }
+
+    @Override
+    public List<UserDto> getUsersByIds(List<Long> userIds) {
+        try {
+            return withDeadline().getUsersByIds(UserIdsProto.newBuilder().addAllUserId(userIds).build())
+                    .getUserList().stream()
+                    .map(CoreProtoMapper::fromProto)
+                    .toList();
+        } catch (StatusRuntimeException e) {
+            throw GrpcErrors.fromStatus(e);
+        }
+    }
+
+    private UserLookupGrpc.UserLookupBlockingStub withDeadline() {
+        return stub.withDeadlineAfter(deadline.toMillis(), TimeUnit.MILLISECONDS);
+    }
+}
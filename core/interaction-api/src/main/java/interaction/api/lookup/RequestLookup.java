@@ -0,0 +1,18 @@
+package interaction.api.lookup;
+
+import interaction.api.dto.request.ConfirmedRequestsCountsDto;
+import interaction.api.dto.request.ParticipationRequestDto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Чтение заявок на участие из request-service. Транспорт (Feign или gRPC) выбирается настройкой клиента.
+ */
+public interface RequestLookup {
+    Map<Long, List<ParticipationRequestDto>> prepareConfirmedRequests(List<Long> eventIds);
+
+    ConfirmedRequestsCountsDto countConfirmedRequests(List<Long> eventIds);
+
+    boolean checkRegistration(Long eventId, Long userId);
+}
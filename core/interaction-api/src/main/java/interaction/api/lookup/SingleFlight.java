@@ -0,0 +1,96 @@
+package interaction.api.lookup;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Объединение одинаковых одновременных запросов: в сервис уходит только первый вызов по ключу,
+ * остальные ждут его результат или ошибку. Время ожидания ограничено таймаутом самого запроса.
+ * При memo-ttl больше нуля успешный ответ ещё столько же отдаётся без запроса.
+ * Ответ разделяется между вызывающими, поэтому изменять его нельзя.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class SingleFlight<K, V> {
+    private static final long MEMO_MAXIMUM_SIZE = 10_000;
+
+    ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    Cache<K, V> memo;
+    Counter loaded;
+    Counter coalesced;
+    Counter memoized;
+
+    public SingleFlight(String name, Duration memoTtl, MeterRegistry meterRegistry) {
+        this.memo = memoTtl.isPositive()
+                ? Caffeine.newBuilder().maximumSize(MEMO_MAXIMUM_SIZE).expireAfterWrite(memoTtl).build()
+                : null;
+        this.loaded = counter(name, "loaded", meterRegistry);
+        this.coalesced = counter(name, "coalesced", meterRegistry);
+        this.memoized = counter(name, "memo", meterRegistry);
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        if (memo != null) {
+            V value = memo.getIfPresent(key);
+            if (value != null) {
+                memoized.increment();
+                return value;
+            }
+        }
+
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        loaded.increment();
+        try {
+            V value = loader.get();
+            // -- Ответ попадает в memo до снятия ключа, чтобы следующий вызов не ушёл в сервис повторно
+            if (memo != null && value != null) {
+                memo.put(key, value);
+            }
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static Counter counter(String name, String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("internal-api.lookup.calls")
+                .description("Вызовы внутренних запросов чтения: отправленные, объединённые с уже идущим и взятые из memo")
+                .tag("lookup", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
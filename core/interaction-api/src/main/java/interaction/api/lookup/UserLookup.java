@@ -0,0 +1,15 @@
+package interaction.api.lookup;
+
+import interaction.api.dto.user.UserDto;
+import interaction.api.dto.user.UserShortDto;
+
+import java.util.List;
+
+/**
+ * Чтение пользователей из user-service. Транспорт (Feign или gRPC) выбирается настройкой клиента.
+ */
+public interface UserLookup {
+    UserShortDto getUserById(Long userId);
+
+    List<UserDto> getUsersByIds(List<Long> userIds);
+}
@@ -0,0 +1,108 @@
+package interaction.autoconfigure;
+
+import interaction.api.feign.contract.EventContract;
+import interaction.api.feign.contract.RequestContract;
+import interaction.api.feign.contract.UserContract;
+import interaction.api.lookup.CoalescingEventLookup;
+import interaction.api.lookup.CoalescingUserLookup;
+import interaction.api.lookup.EventLookup;
+import interaction.api.lookup.FeignEventLookup;
+import interaction.api.lookup.FeignRequestLookup;
+import interaction.api.lookup.FeignUserLookup;
+import interaction.api.lookup.GrpcEventLookup;
+import interaction.api.lookup.GrpcRequestLookup;
+import interaction.api.lookup.GrpcUserLookup;
+import interaction.api.lookup.RequestLookup;
+import interaction.api.lookup.UserLookup;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.devh.boot.grpc.client.channelfactory.GrpcChannelFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.grpc.ewm.core.lookup.EventLookupGrpc;
+import ru.practicum.grpc.ewm.core.lookup.RequestLookupGrpc;
+import ru.practicum.grpc.ewm.core.lookup.UserLookupGrpc;
+
+import java.time.Duration;
+
+/**
+ * Транспорт частых запросов чтения к соседним сервисам: internal-api.<сервис>.transport = feign
+ * (JSON поверх HTTP/1.1, через Feign-клиент сервиса) или grpc (protobuf, запросы мультиплексируются
+ * в одном HTTP/2-соединении). Клиент создаётся только там, где транспорт задан явно, поэтому сервис
+ * не получает клиента к самому себе. Одновременные запросы одного пользователя или события
+ * объединяются в один вызов (SingleFlight).
+ * <p>
+ * Пакет лежит вне interaction.api, который сервисы сканируют как компоненты: класс подключается
+ * только через AutoConfiguration.imports.
+ */
+@AutoConfiguration
+@SuppressWarnings("unused")
+public class LookupClientAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = "internal-api.user-service.transport", havingValue = "feign")
+    public UserLookup feignUserLookup(UserContract userClient, MeterRegistry meterRegistry,
+                                      @Value("${internal-api.user-service.memo-ttl:PT0S}") Duration memoTtl) {
+        return new CoalescingUserLookup(new FeignUserLookup(userClient), memoTtl, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = "internal-api.event-service.transport", havingValue = "feign")
+    public EventLookup feignEventLookup(EventContract eventClient, MeterRegistry meterRegistry,
+                                        @Value("${internal-api.event-service.memo-ttl:PT0S}") Duration memoTtl) {
+        return new CoalescingEventLookup(new FeignEventLookup(eventClient), memoTtl, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(name = "internal-api.request-service.transport", havingValue = "feign")
+    public RequestLookup feignRequestLookup(RequestContract requestClient) {
+        return new FeignRequestLookup(requestClient);
+    }
+
+    // -- Только для сервисов с grpc-client-spring-boot-starter
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(GrpcChannelFactory.class)
+    static class GrpcLookupConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnProperty(name = "internal-api.user-service.transport", havingValue = "grpc")
+        public UserLookup grpcUserLookup(GrpcChannelFactory channelFactory, MeterRegistry meterRegistry,
+                                         @Value("${internal-api.user-service.deadline:PT2S}") Duration deadline,
+                                         @Value("${internal-api.user-service.memo-ttl:PT0S}") Duration memoTtl) {
+            return new CoalescingUserLookup(
+                    new GrpcUserLookup(UserLookupGrpc.newBlockingStub(channelFactory.createChannel("user-service")),
+                            deadline),
+                    memoTtl, meterRegistry);
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnProperty(name = "internal-api.event-service.transport", havingValue = "grpc")
+        public EventLookup grpcEventLookup(GrpcChannelFactory channelFactory, MeterRegistry meterRegistry,
+                                           @Value("${internal-api.event-service.deadline:PT2S}") Duration deadline,
+                                           @Value("${internal-api.event-service.memo-ttl:PT0S}") Duration memoTtl) {
+            return new CoalescingEventLookup(
+                    new GrpcEventLookup(EventLookupGrpc.newBlockingStub(channelFactory.createChannel("event-service")),
+                            deadline),
+                    memoTtl, meterRegistry);
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnProperty(name = "internal-api.request-service.transport", havingValue = "grpc")
+        public RequestLookup grpcRequestLookup(GrpcChannelFactory channelFactory,
+                                               @Value("${internal-api.request-service.deadline:PT2S}")
+                                               Duration deadline) {
+            return new GrpcRequestLookup(
+                    RequestLookupGrpc.newBlockingStub(channelFactory.createChannel("request-service")), deadline);
+        }
+    }
+}
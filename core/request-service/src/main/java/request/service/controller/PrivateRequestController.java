@@ -1,5 +1,6 @@
 package request.service.controller;
 
+import interaction.api.dto.request.ConfirmedRequestsCountsDto;
 import interaction.api.dto.request.EventRequestStatusUpdateResultDto;
 import interaction.api.dto.request.ParticipationRequestDto;
 import interaction.api.dto.request.RequestStatusUpdateDto;
@@ -82,6 +83,12 @@ public class PrivateRequestController {
         return requestService.prepareConfirmedRequests(eventIds);
     }
 
+    @GetMapping("/users/requests/confirmed/count")
+    public ConfirmedRequestsCountsDto countConfirmedRequests(@RequestParam List<Long> eventIds) {
+        log.info("Получен список eventIds {} для подсчёта подтверждённых заявок", eventIds);
+        return requestService.countConfirmedRequests(eventIds);
+    }
+
     @GetMapping("/users/requests/confirmed/{eventId}/{userId}")
     Boolean checkRegistration(@PathVariable Long eventId, @PathVariable Long userId) {
         log.info("Проверка регистрации пользователя");
@@ -0,0 +1,65 @@
+package request.service.controller;
+
+import interaction.api.grpc.CoreProtoMapper;
+import interaction.api.grpc.GrpcErrors;
+import io.grpc.stub.StreamObserver;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.server.service.GrpcService;
+import request.service.service.RequestService;
+import ru.practicum.grpc.ewm.core.lookup.RequestLookupGrpc;
+import ru.practicum.grpc.ewm.core.message.ConfirmedCountsProto;
+import ru.practicum.grpc.ewm.core.message.ConfirmedRequestsProto;
+import ru.practicum.grpc.ewm.core.message.EventIdsProto;
+import ru.practicum.grpc.ewm.core.message.RegistrationCheckProto;
+import ru.practicum.grpc.ewm.core.message.RegistrationProto;
+
+@GrpcService
+@RequiredArgsConstructor
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@SuppressWarnings("unused")
+public class RequestLookupGrpcController extends RequestLookupGrpc.RequestLookupImplBase {
+    RequestService requestService;
+
+    @Override
+    public void prepareConfirmedRequests(EventIdsProto request, StreamObserver<ConfirmedRequestsProto> responseObserver) {
+        try {
+            ConfirmedRequestsProto.Builder response = ConfirmedRequestsProto.newBuilder();
+            requestService.prepareConfirmedRequests(request.getEventIdList())
+                    .forEach((eventId, requests) -> response.putRequests(eventId, CoreProtoMapper.toProto(requests)));
+            responseObserver.onNext(response.build());
+            responseObserver.onCompleted();
+        } catch (RuntimeException e) {
+            log.warn("Ошибка gRPC-запроса подтверждённых заявок: {}", e.getMessage());
+            responseObserver.onError(GrpcErrors.toStatus(e));
+        }
+    }
+
+    @Override
+    public void countConfirmedRequests(EventIdsProto request, StreamObserver<ConfirmedCountsProto> responseObserver) {
+        try {
+            responseObserver.onNext(CoreProtoMapper.toProto(
+                    requestService.countConfirmedRequests(request.getEventIdList())));
+            responseObserver.onCompleted();
+        } catch (RuntimeException e) {
+            log.warn("Ошибка gRPC-запроса числа подтверждённых заявок: {}", e.getMessage());
+            responseObserver.onError(GrpcErrors.toStatus(e));
+        }
+    }
+
+    @Override
+    public void checkRegistration(RegistrationCheckProto request, StreamObserver<RegistrationProto> responseObserver) {
+        try {
+            boolean registered = Boolean.TRUE.equals(
+                    requestService.checkRegistration(request.getEventId(), request.getUserId()));
+            responseObserver.onNext(RegistrationProto.newBuilder().setRegistered(registered).build());
+            responseObserver.onCompleted();
+        } catch (RuntimeException e) {
+            log.warn("Ошибка gRPC-проверки регистрации: {}", e.getMessage());
+            responseObserver.onError(GrpcErrors.toStatus(e));
+        }
+    }
+}
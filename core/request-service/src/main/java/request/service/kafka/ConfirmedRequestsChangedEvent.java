@@ -0,0 +1,16 @@
+package request.service.kafka;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Внутреннее событие приложения: в текущей транзакции могло измениться число подтверждённых заявок.
+ */
+@Getter
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ConfirmedRequestsChangedEvent {
+    Long eventId;
+}
@@ -0,0 +1,63 @@
+package request.service.kafka;
+
+import interaction.api.dto.request.ConfirmedRequestsChangedDto;
+import interaction.api.enums.RequestStatus;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import request.service.repository.RequestRepository;
+
+import java.time.Instant;
+
+/**
+ * Публикует число подтверждённых заявок события после фиксации транзакции, которая его изменила.
+ * Счётчик читается заново уже после коммита, поэтому в топик попадает только зафиксированное значение.
+ */
+@Component
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ConfirmedRequestsPublisher {
+    KafkaTemplate<String, ConfirmedRequestsChangedDto> kafkaTemplate;
+    RequestRepository requestRepository;
+    String topic;
+
+    public ConfirmedRequestsPublisher(KafkaTemplate<String, ConfirmedRequestsChangedDto> kafkaTemplate,
+                                      RequestRepository requestRepository,
+                                      @Value("${spring.kafka.producer.topic.confirmed-requests}") String topic) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.requestRepository = requestRepository;
+        this.topic = topic;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onConfirmedRequestsChanged(ConfirmedRequestsChangedEvent event) {
+        // -- Время фиксируется до подсчёта: более позднее сообщение всегда несёт не менее свежее значение
+        Instant countedAt = Instant.now();
+        long confirmed = requestRepository.countByEventIdAndStatusEquals(event.getEventId(), RequestStatus.CONFIRMED);
+
+        ConfirmedRequestsChangedDto message = ConfirmedRequestsChangedDto.builder()
+                .eventId(event.getEventId())
+                .confirmedRequests(confirmed)
+                .countedAt(countedAt)
+                .build();
+
+        // -- Ключ — id события: все изменения одного события попадают в одну партицию по порядку
+        kafkaTemplate.send(topic, String.valueOf(event.getEventId()), message)
+                .whenComplete((result, exception) -> {
+                    if (exception == null) {
+                        log.debug("Отправлено число подтверждённых заявок: {}", message);
+                    } else {
+                        log.error("Ошибка при отправке числа подтверждённых заявок для события {}. " +
+                                  "Значение будет исправлено сверкой в event-service", event.getEventId(), exception);
+                    }
+                });
+    }
+}
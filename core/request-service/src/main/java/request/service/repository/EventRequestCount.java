@@ -0,0 +1,7 @@
+package request.service.repository;
+
+public interface EventRequestCount {
+    Long getEventId();
+
+    Long getCount();
+}
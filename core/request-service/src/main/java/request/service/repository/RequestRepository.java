@@ -24,4 +24,9 @@ public interface RequestRepository extends JpaRepository<ParticipationRequest, L
 
     @Query("SELECT r FROM ParticipationRequest r WHERE r.eventId IN :eventIds AND r.status = :status")
     List<ParticipationRequest> findConfirmedRequestsByEventIds(@Param("eventIds") List<Long> eventIds, @Param("status") RequestStatus status);
+
+    @Query("SELECT r.eventId AS eventId, COUNT(r) AS count FROM ParticipationRequest r " +
+           "WHERE r.eventId IN :eventIds AND r.status = :status GROUP BY r.eventId")
+    List<EventRequestCount> countByEventIdsAndStatus(@Param("eventIds") List<Long> eventIds,
+                                                     @Param("status") RequestStatus status);
 }
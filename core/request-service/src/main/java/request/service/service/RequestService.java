@@ -1,5 +1,6 @@
 package request.service.service;
 
+import interaction.api.dto.request.ConfirmedRequestsCountsDto;
 import interaction.api.dto.request.EventRequestStatusUpdateResultDto;
 import interaction.api.dto.request.ParticipationRequestDto;
 import interaction.api.dto.request.RequestStatusUpdateDto;
@@ -21,5 +22,7 @@ public interface RequestService {
 
     Map<Long, List<ParticipationRequestDto>> prepareConfirmedRequests(List<Long> eventIds);
 
+    ConfirmedRequestsCountsDto countConfirmedRequests(List<Long> eventIds);
+
     Boolean checkRegistration(Long eventId, Long userId);
 }
@@ -2,6 +2,7 @@ package request.service.service;
 
 import feign.FeignException;
 import interaction.api.dto.event.EventFullDto;
+import interaction.api.dto.request.ConfirmedRequestsCountsDto;
 import interaction.api.dto.request.EventRequestStatusUpdateRequestDto;
 import interaction.api.dto.request.EventRequestStatusUpdateResultDto;
 import interaction.api.dto.request.ParticipationRequestDto;
@@ -14,16 +15,20 @@ import interaction.api.exception.DuplicatedDataException;
 import interaction.api.exception.EventOperationFailedException;
 import interaction.api.exception.NotFoundException;
 import interaction.api.exception.UserOperationFailedException;
+import interaction.api.lookup.EventLookup;
+import interaction.api.lookup.UserLookup;
+import io.grpc.StatusRuntimeException;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import request.service.feign.client.EventClient;
-import request.service.feign.client.UserClient;
+import request.service.kafka.ConfirmedRequestsChangedEvent;
 import request.service.mapper.RequestMapper;
 import request.service.model.ParticipationRequest;
+import request.service.repository.EventRequestCount;
 import request.service.repository.RequestRepository;
 import stats.client.CollectorClient;
 
@@ -48,9 +53,10 @@ import java.util.stream.Collectors;
 public class RequestServiceImpl implements RequestService {
     RequestRepository requestRepository;
     RequestMapper requestMapper;
-    EventClient eventClient;
-    UserClient userClient;
+    EventLookup eventLookup;
+    UserLookup userLookup;
     CollectorClient collectorClient;
+    ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     @Override
@@ -67,7 +73,12 @@ public class RequestServiceImpl implements RequestService {
     @Override
     public ParticipationRequestDto createRequest(Long requesterId, Long eventId) {
         collectorClient.collectUserAction(requesterId, eventId, "ACTION_REGISTER", Instant.now());
-        return requestMapper.toParticipationRequestDto(requestRepository.save(validateRequest(requesterId, eventId)));
+        ParticipationRequest request = requestRepository.save(validateRequest(requesterId, eventId));
+
+        if (request.getStatus() == RequestStatus.CONFIRMED) {
+            eventPublisher.publishEvent(new ConfirmedRequestsChangedEvent(eventId));
+        }
+        return requestMapper.toParticipationRequestDto(request);
     }
 
     @Override
@@ -75,6 +86,10 @@ public class RequestServiceImpl implements RequestService {
         validateUserExist(requesterId);
         ParticipationRequest participationRequest = validateRequestExist(requesterId, requestId);
 
+        if (participationRequest.getStatus() == RequestStatus.CONFIRMED) {
+            eventPublisher.publishEvent(new ConfirmedRequestsChangedEvent(participationRequest.getEventId()));
+        }
+
         participationRequest.setStatus(RequestStatus.CANCELED);
         return requestMapper.toParticipationRequestDto(participationRequest);
     }
@@ -183,6 +198,10 @@ public class RequestServiceImpl implements RequestService {
 
         requestRepository.saveAll(requestsMap.values());
 
+        if (!confirmedRequests.isEmpty()) {
+            eventPublisher.publishEvent(new ConfirmedRequestsChangedEvent(eventId));
+        }
+
         return result;
     }
 
@@ -207,6 +226,19 @@ public class RequestServiceImpl implements RequestService {
         return result;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public ConfirmedRequestsCountsDto countConfirmedRequests(List<Long> eventIds) {
+        log.info("Подсчитываем подтверждённые запросы для {} событий", eventIds.size());
+
+        // -- Время фиксируется до подсчёта, как в ConfirmedRequestsPublisher: часы у обоих одни
+        Instant countedAt = Instant.now();
+        // -- События без подтверждённых заявок в ответ не попадают, вызывающая сторона считает их нулём
+        Map<Long, Long> counts = requestRepository.countByEventIdsAndStatus(eventIds, RequestStatus.CONFIRMED).stream()
+                .collect(Collectors.toMap(EventRequestCount::getEventId, EventRequestCount::getCount));
+        return new ConfirmedRequestsCountsDto(counts, countedAt);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Boolean checkRegistration(Long eventId, Long userId) {
@@ -255,11 +287,11 @@ public class RequestServiceImpl implements RequestService {
         }
 
         try {
-            userClient.getUserById(userId);
+            userLookup.getUserById(userId);
         } catch (FeignException.FeignClientException e) {
             log.warn("Клиентская ошибка (4xx) при получении пользователя id {}: {}", userId, e.getMessage());
             throw new UserOperationFailedException(String.format("Ошибка при получении пользователя по id %d: %s", userId, e.getMessage()));
-        } catch (FeignException e) {
+        } catch (FeignException | StatusRuntimeException e) {
             log.error("Серверная ошибка (5xx) при получении пользователя id {}: {}", userId, e.getMessage(), e);
             throw new UserOperationFailedException(String.format("user-service недоступен для пользователя с id %d", userId));
         }
@@ -267,11 +299,11 @@ public class RequestServiceImpl implements RequestService {
 
     private EventFullDto validateEventExist(Long eventId) {
         try {
-            return eventClient.getEvent(eventId);
+            return eventLookup.getEvent(eventId);
         } catch (FeignException.FeignClientException e) {
             log.warn("Клиентская ошибка (4xx) при получении события: {}", eventId);
             throw new EventOperationFailedException(String.format("Ошибка при получении события: %d", eventId));
-        } catch (FeignException e) {
+        } catch (FeignException | StatusRuntimeException e) {
             log.error("Серверная ошибка (5xx) при получении события: {}", eventId);
             throw new EventOperationFailedException(String.format("event-service недоступен для события: %d", eventId));
         }
@@ -0,0 +1,52 @@
+package user.service.controller;
+
+import interaction.api.grpc.CoreProtoMapper;
+import interaction.api.grpc.GrpcErrors;
+import io.grpc.stub.StreamObserver;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.server.service.GrpcService;
+import ru.practicum.grpc.ewm.core.lookup.UserLookupGrpc;
+import ru.practicum.grpc.ewm.core.message.UserIdProto;
+import ru.practicum.grpc.ewm.core.message.UserIdsProto;
+import ru.practicum.grpc.ewm.core.message.UserListProto;
+import ru.practicum.grpc.ewm.core.message.UserShortProto;
+import user.service.service.UserService;
+
+@GrpcService
+@RequiredArgsConstructor
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@SuppressWarnings("unused")
+public class UserLookupGrpcController extends UserLookupGrpc.UserLookupImplBase {
+    UserService userService;
+
+    @Override
+    public void getUserById(UserIdProto request, StreamObserver<UserShortProto> responseObserver) {
+        try {
+            responseObserver.onNext(CoreProtoMapper.toProto(userService.getUserById(request.getUserId())));
+            responseObserver.onCompleted();
+        } catch (RuntimeException e) {
+            log.warn("Ошибка gRPC-запроса пользователя id {}: {}", request.getUserId(), e.getMessage());
+            responseObserver.onError(GrpcErrors.toStatus(e));
+        }
+    }
+
+    @Override
+    public void getUsersByIds(UserIdsProto request, StreamObserver<UserListProto> responseObserver) {
+        try {
+            UserListProto.Builder response = UserListProto.newBuilder();
+            if (request.getUserIdCount() > 0) {
+                userService.getUsers(request.getUserIdList(), 0, request.getUserIdCount())
+                        .forEach(user -> response.addUser(CoreProtoMapper.toProto(user)));
+            }
+            responseObserver.onNext(response.build());
+            responseObserver.onCompleted();
+        } catch (RuntimeException e) {
+            log.warn("Ошибка gRPC-запроса {} пользователей: {}", request.getUserIdCount(), e.getMessage());
+            responseObserver.onError(GrpcErrors.toStatus(e));
+        }
+    }
+}
@@ -17,4 +17,16 @@ import java.util.Map;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class AggregatorProperties {
     Map<ActionTypeAvro, Double> weights;
+
+    Similarity similarity = new Similarity();
+
+    @Getter
+    @Setter
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Similarity {
+        SimilarityFormat format = SimilarityFormat.PAIR;
+
+        // -- Передавать оценки в пачке как float вместо double
+        boolean quantizeScores = false;
+    }
 }
@@ -0,0 +1,31 @@
+package aggregator.kafka.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+
+/**
+ * Режим exactly-once включается свойством spring.kafka.producer.transaction-id-prefix.
+ * Контейнер слушателя открывает транзакцию, передаёт в неё смещения входного топика
+ * (sendOffsetsToTransaction) и фиксирует вместе с отправленными оценками и журналом весов.
+ */
+@Configuration
+@Slf4j
+@SuppressWarnings("unused")
+public class KafkaTransactionConfig {
+    // -- Заменяет менеджер из автоконфигурации: синхронизация нужна, чтобы откатить состояние в памяти
+    @Bean
+    @ConditionalOnProperty(name = "spring.kafka.producer.transaction-id-prefix")
+    public KafkaTransactionManager<?, ?> kafkaTransactionManager(ProducerFactory<?, ?> producerFactory) {
+        KafkaTransactionManager<?, ?> transactionManager = new KafkaTransactionManager<>(producerFactory);
+        transactionManager.setTransactionSynchronization(AbstractPlatformTransactionManager.SYNCHRONIZATION_ALWAYS);
+
+        log.info("Агрегатор работает в транзакционном режиме Kafka");
+
+        return transactionManager;
+    }
+}
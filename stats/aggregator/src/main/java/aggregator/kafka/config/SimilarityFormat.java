@@ -0,0 +1,9 @@
+package aggregator.kafka.config;
+
+// -- Формат отправки оценок схожести в Kafka
+public enum SimilarityFormat {
+    // -- Одна пара событий на сообщение (EventSimilarityAvro)
+    PAIR,
+    // -- Все оценки, пересчитанные по одному действию, в одном сообщении (EventSimilarityBatchAvro)
+    BATCH
+}
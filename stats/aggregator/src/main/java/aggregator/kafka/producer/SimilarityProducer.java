@@ -1,39 +1,66 @@
 package aggregator.kafka.producer;
 
+import aggregator.kafka.config.AggregatorProperties;
+import aggregator.kafka.config.SimilarityFormat;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.specific.SpecificRecordBase;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 import ru.practicum.ewm.stats.avro.EventSimilarityAvro;
+import ru.practicum.ewm.stats.avro.EventSimilarityBatchAvro;
+import ru.practicum.kafka.batch.SimilarityBatchCodec;
 
+import java.time.Instant;
 import java.util.List;
 
 @Component
 @Slf4j
 public class SimilarityProducer {
-    private final KafkaTemplate<String, EventSimilarityAvro> kafkaTemplate;
+    private final KafkaTemplate<String, SpecificRecordBase> kafkaTemplate;
     private final String topicName;
+    private final String batchTopicName;
+    private final AggregatorProperties.Similarity properties;
 
-    public SimilarityProducer(KafkaTemplate<String, EventSimilarityAvro> kafkaTemplate,
-                              @Value("${spring.kafka.producer.topic.events-similarity}") String topicName) {
+    public SimilarityProducer(KafkaTemplate<String, SpecificRecordBase> kafkaTemplate,
+                              @Value("${spring.kafka.producer.topic.events-similarity}") String topicName,
+                              @Value("${spring.kafka.producer.topic.events-similarity-batch}") String batchTopicName,
+                              AggregatorProperties aggregatorProperties) {
         this.kafkaTemplate = kafkaTemplate;
         this.topicName = topicName;
+        this.batchTopicName = batchTopicName;
+        this.properties = aggregatorProperties.getSimilarity();
     }
 
-   public void sendSimilarityScores(List<EventSimilarityAvro> messages) {
-       log.debug("Отправка {} сообщений в топик '{}'", messages.size(), topicName);
-       for (EventSimilarityAvro message : messages) {
-           send(message);
-       }
-   }
-    private void send(EventSimilarityAvro message) {
-        kafkaTemplate.send(topicName, message)
+    // -- sourceEventId — событие, действие над которым привело к пересчёту оценок
+    public void sendSimilarityScores(long sourceEventId, List<EventSimilarityAvro> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        if (properties.getFormat() == SimilarityFormat.BATCH) {
+            EventSimilarityBatchAvro batch = SimilarityBatchCodec.encode(
+                    sourceEventId, messages, Instant.now(), properties.isQuantizeScores());
+            log.debug("Отправка пачки из {} оценок для события {} в топик '{}'",
+                    messages.size(), sourceEventId, batchTopicName);
+            send(batchTopicName, batch);
+            return;
+        }
+
+        log.debug("Отправка {} сообщений в топик '{}'", messages.size(), topicName);
+        for (EventSimilarityAvro message : messages) {
+            send(topicName, message);
+        }
+    }
+
+    private void send(String topic, SpecificRecordBase message) {
+        kafkaTemplate.send(topic, message)
                 .whenComplete((result, exception) -> {
                     if (exception == null) {
                         log.info("Оценка сходства успешно отправлена: message={}", message);
                     } else {
                         log.error("Ошибка при отправке оценки сходства в топик '{}': message={}",
-                                topicName, message, exception);
+                                topic, message, exception);
                     }
                 });
     }
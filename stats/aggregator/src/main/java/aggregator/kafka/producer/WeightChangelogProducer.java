@@ -0,0 +1,53 @@
+package aggregator.kafka.producer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.specific.SpecificRecordBase;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.ewm.stats.avro.EventUserWeightAvro;
+
+/**
+ * Пишет изменения весов в сжимаемый (compacted) топик — контрольную точку состояния агрегатора.
+ * В транзакционном режиме запись попадает в ту же транзакцию, что и оценки схожести и смещения входного топика.
+ */
+@Component
+@Slf4j
+public class WeightChangelogProducer {
+    private final KafkaTemplate<String, SpecificRecordBase> kafkaTemplate;
+    private final String topicName;
+
+    public WeightChangelogProducer(KafkaTemplate<String, SpecificRecordBase> kafkaTemplate,
+                                   @Value("${spring.kafka.producer.topic.aggregator-state:}") String topicName) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.topicName = topicName;
+    }
+
+    public boolean isEnabled() {
+        return !topicName.isBlank();
+    }
+
+    public String getTopicName() {
+        return topicName;
+    }
+
+    public void sendWeight(long eventId, long userId, double weight) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        EventUserWeightAvro message = new EventUserWeightAvro(eventId, userId, weight);
+        kafkaTemplate.send(topicName, key(eventId, userId), message)
+                .whenComplete((result, exception) -> {
+                    if (exception != null) {
+                        log.error("Ошибка при записи веса в журнал состояния '{}': message={}",
+                                topicName, message, exception);
+                    }
+                });
+    }
+
+    // -- Ключ задаёт единицу сжатия: в топике остаётся последний вес пары событие-пользователь
+    private static String key(long eventId, long userId) {
+        return eventId + ":" + userId;
+    }
+}
@@ -5,7 +5,9 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.specific.SpecificRecordBase;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 import ru.practicum.ewm.stats.avro.UserActionAvro;
 
@@ -16,6 +18,7 @@ import ru.practicum.ewm.stats.avro.UserActionAvro;
 @SuppressWarnings("unused")
 public class UserActionListener {
     AggregatorService similarityService;
+    KafkaTemplate<String, SpecificRecordBase> kafkaTemplate;
 
     @KafkaListener(
             topics = "${spring.kafka.consumer.topic.user-actions}",
@@ -27,6 +30,12 @@ public class UserActionListener {
             similarityService.calculateSimilarity(message);
         } catch (Exception e) {
             log.error("Ошибка при обработке сообщения: {}", message, e);
+
+            // -- В транзакционном режиме ошибка прерывает транзакцию: смещение не фиксируется,
+            // -- сообщение будет обработано повторно
+            if (kafkaTemplate.isTransactional()) {
+                throw e;
+            }
         }
     }
 }
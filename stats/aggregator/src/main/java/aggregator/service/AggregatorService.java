@@ -2,21 +2,32 @@ package aggregator.service;
 
 import aggregator.kafka.config.AggregatorProperties;
 import aggregator.kafka.producer.SimilarityProducer;
+import aggregator.kafka.producer.WeightChangelogProducer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.ewm.stats.avro.ActionTypeAvro;
 import ru.practicum.ewm.stats.avro.EventSimilarityAvro;
 import ru.practicum.ewm.stats.avro.UserActionAvro;
 
 import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
@@ -37,18 +48,55 @@ public class AggregatorService {
     // -- Структура: {eventId -> {otherEventId -> dotProduct}}
     Map<Long, Map<Long, Double>> scalarResultMatrix;
 
+    // -- Журнал изменений состояния по текущему сообщению: если транзакция Kafka
+    // -- не зафиксирована, изменения откатываются, и повторная обработка не задваивает произведения.
+    Deque<Runnable> undoLog;
+
     SimilarityProducer producer;
 
+    WeightChangelogProducer changelog;
+
     // -- Веса для различных типов действий, полученные из конфигурации.
     // -- Структура: {ActionTypeAvro -> weight}
     Map<ActionTypeAvro, Double> actionWeights;
 
-    public AggregatorService(SimilarityProducer producer, AggregatorProperties properties) {
+    // -- Число пар (событие, пользователь) в состоянии; поддерживается при записи, чтобы не обходить карты
+    AtomicLong weightCount;
+
+    // -- Стоимость обработки одного действия: время и число пересчитанных пар
+    Timer updateTimer;
+    DistributionSummary updatedPairs;
+
+    // -- Задержка от действия пользователя (timestamp сообщения) до отправки пересчитанных оценок
+    Timer actionLatencyTimer;
+
+    public AggregatorService(SimilarityProducer producer, WeightChangelogProducer changelog,
+                             AggregatorProperties properties, MeterRegistry meterRegistry) {
         this.producer = producer;
+        this.changelog = changelog;
         this.actionWeights = properties.getWeights(); // Получаем веса из properties
 
         this.eventUserWeights = new HashMap<>();
         this.scalarResultMatrix = new HashMap<>();
+        this.undoLog = new ArrayDeque<>();
+        this.weightCount = new AtomicLong();
+
+        // -- Размеры читаются при снятии метрик из другого потока: для size() это допустимо
+        Gauge.builder("aggregator.state.events", eventUserWeights, Map::size)
+                .description("События, по которым накоплены веса действий")
+                .register(meterRegistry);
+        Gauge.builder("aggregator.state.weights", weightCount, AtomicLong::get)
+                .description("Веса действий пользователей в состоянии агрегатора")
+                .register(meterRegistry);
+        this.updateTimer = Timer.builder("aggregator.action.update")
+                .description("Время обновления состояния и отправки оценок по одному действию")
+                .register(meterRegistry);
+        this.updatedPairs = DistributionSummary.builder("aggregator.action.pairs")
+                .description("Число пар событий, пересчитанных по одному действию")
+                .register(meterRegistry);
+        this.actionLatencyTimer = Timer.builder("aggregator.action.latency")
+                .description("Задержка от действия пользователя до отправки коэффициентов схожести")
+                .register(meterRegistry);
 
         log.info("AggregationService инициализирован с весами: {}", this.actionWeights);
     }
@@ -56,18 +104,80 @@ public class AggregatorService {
     // -- обновляет вес действия для данного пользователя и события,
     // -- затем пересчитывает и отправляет обновленные оценки схожести событий.
     public void calculateSimilarity(UserActionAvro request) {
+        long start = System.nanoTime();
         double newWeight = getWeight(request.getActionType());
 
-        List<EventSimilarityAvro> similarities = updateEventWeight(
-                request.getEventId(),
-                request.getUserId(),
-                newWeight
-        );
+        try {
+            List<EventSimilarityAvro> similarities = updateEventWeight(
+                    request.getEventId(),
+                    request.getUserId(),
+                    newWeight
+            );
+            updatedPairs.record(similarities.size());
+
+            producer.sendSimilarityScores(request.getEventId(), similarities.stream()
+                    .sorted(Comparator.comparingLong(EventSimilarityAvro::getEventA)
+                            .thenComparingLong(EventSimilarityAvro::getEventB))
+                    .collect(Collectors.toList()));
+        } catch (RuntimeException e) {
+            rollbackState();
+            throw e;
+        }
+
+        completeStateUpdate();
+
+        updateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (request.getTimestamp() != null) {
+            actionLatencyTimer.record(System.currentTimeMillis() - request.getTimestamp().toEpochMilli(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // -- Применяет вес из журнала состояния при старте: без отправки оценок и повторной записи в журнал
+    public void restoreWeight(long eventId, long userId, double weight) {
+        Map<Long, Double> userWeights = eventUserWeights.computeIfAbsent(eventId, k -> new HashMap<>());
+        Double currentWeight = userWeights.get(userId);
+
+        if (currentWeight == null || currentWeight < weight) {
+            recalculateSimilarities(eventId, userId, weight, currentWeight);
+            userWeights.put(userId, weight);
+            if (currentWeight == null) {
+                weightCount.incrementAndGet();
+            }
+        }
+        undoLog.clear();
+    }
+
+    // -- В транзакции Kafka журнал очищается только после фиксации, иначе изменения сразу считаются применёнными
+    private void completeStateUpdate() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            undoLog.clear();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    undoLog.clear();
+                } else {
+                    log.warn("Транзакция Kafka не зафиксирована, откат изменений состояния: {}", undoLog.size());
+                    rollbackState();
+                }
+            }
+        });
+    }
 
-        producer.sendSimilarityScores(similarities.stream()
-                .sorted(Comparator.comparingLong(EventSimilarityAvro::getEventA)
-                        .thenComparingLong(EventSimilarityAvro::getEventB))
-                .collect(Collectors.toList()));
+    private void rollbackState() {
+        while (!undoLog.isEmpty()) {
+            undoLog.pop().run();
+        }
+    }
+
+    // -- Запись в карту с сохранением предыдущего значения в журнал отката
+    private void put(Map<Long, Double> map, Long key, double value) {
+        Double previous = map.put(key, value);
+        undoLog.push(previous == null ? () -> map.remove(key) : () -> map.put(key, previous));
     }
 
     private double getWeight(ActionTypeAvro actionType) {
@@ -87,7 +197,12 @@ public class AggregatorService {
                     newWeight,
                     currentWeight
             );
-            userWeights.put(userId, newWeight);
+            put(userWeights, userId, newWeight);
+            if (currentWeight == null) {
+                weightCount.incrementAndGet();
+                undoLog.push(weightCount::decrementAndGet);
+            }
+            changelog.sendWeight(eventId, userId, newWeight);
             return updatedSimilarities;
         }
         return Collections.emptyList();
@@ -99,7 +214,7 @@ public class AggregatorService {
         double currentSelfProduct = selfDotProducts.getOrDefault(eventId, 0.0);
         double weightDelta = (oldWeight == null) ? newWeight : newWeight - oldWeight;
 
-        selfDotProducts.put(eventId, currentSelfProduct + weightDelta);
+        put(selfDotProducts, eventId, currentSelfProduct + weightDelta);
 
         return updateCrossDotProducts(eventId, userId, newWeight, oldWeight);
     }
@@ -161,7 +276,7 @@ public class AggregatorService {
         double dotProductDelta = newMinWeight - oldMinWeight;
 
         double updatedDotProduct = currentDotProduct + dotProductDelta;
-        dotProducts.put(eventB, updatedDotProduct);
+        put(dotProducts, eventB, updatedDotProduct);
 
         return calculateSimilarity(eventA, eventB, updatedDotProduct);
     }
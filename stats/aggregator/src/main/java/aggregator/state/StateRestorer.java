@@ -0,0 +1,86 @@
+package aggregator.state;
+
+import aggregator.kafka.producer.WeightChangelogProducer;
+import aggregator.service.AggregatorService;
+import jakarta.annotation.PostConstruct;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.ewm.stats.avro.EventUserWeightAvro;
+import ru.practicum.kafka.deserializer.EventUserWeightAvroDeserializer;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Восстанавливает веса из журнала состояния до запуска слушателей Kafka.
+ * Скалярные произведения не хранятся: они однозначно пересчитываются из весов.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class StateRestorer {
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+
+    AggregatorService aggregatorService;
+    WeightChangelogProducer changelog;
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    String bootstrapServers;
+
+    @PostConstruct
+    public void restore() {
+        if (!changelog.isEnabled()) {
+            log.info("Журнал состояния отключён, агрегатор стартует с пустым состоянием");
+            return;
+        }
+
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        // -- Записи прерванных транзакций в состояние не попадают
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+
+        long restored = 0;
+        try (KafkaConsumer<String, EventUserWeightAvro> consumer = new KafkaConsumer<>(props,
+                new StringDeserializer(), new EventUserWeightAvroDeserializer())) {
+            List<TopicPartition> partitions = consumer.partitionsFor(changelog.getTopicName()).stream()
+                    .map(info -> new TopicPartition(info.topic(), info.partition()))
+                    .toList();
+            consumer.assign(partitions);
+            consumer.seekToBeginning(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+
+            while (!reachedEnd(consumer, endOffsets)) {
+                ConsumerRecords<String, EventUserWeightAvro> records = consumer.poll(POLL_TIMEOUT);
+                for (ConsumerRecord<String, EventUserWeightAvro> record : records) {
+                    EventUserWeightAvro weight = record.value();
+                    if (weight != null) {
+                        aggregatorService.restoreWeight(weight.getEventId(), weight.getUserId(), weight.getWeight());
+                        restored++;
+                    }
+                }
+            }
+        }
+
+        log.info("Состояние агрегатора восстановлено из топика '{}': применено записей {}",
+                changelog.getTopicName(), restored);
+    }
+
+    private static boolean reachedEnd(KafkaConsumer<?, ?> consumer, Map<TopicPartition, Long> endOffsets) {
+        return endOffsets.entrySet().stream()
+                .allMatch(entry -> consumer.position(entry.getKey()) >= entry.getValue());
+    }
+}
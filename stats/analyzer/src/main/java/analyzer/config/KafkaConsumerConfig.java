@@ -1,5 +1,7 @@
 package analyzer.config;
 
+import analyzer.kafka.EventLifecycleListener;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.AccessLevel;
 import lombok.Data;
 import lombok.experimental.FieldDefaults;
@@ -12,8 +14,11 @@ import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.MicrometerConsumerListener;
 import org.springframework.kafka.listener.ContainerProperties;
+import ru.practicum.ewm.stats.avro.EventLifecycleAvro;
 import ru.practicum.ewm.stats.avro.EventSimilarityAvro;
+import ru.practicum.ewm.stats.avro.EventSimilarityBatchAvro;
 import ru.practicum.ewm.stats.avro.UserActionAvro;
 
 import java.util.HashMap;
@@ -29,6 +34,8 @@ import java.util.Map;
 public class KafkaConsumerConfig {
     UserConsumer userConsumer = new UserConsumer();
     SimilarityConsumer similarityConsumer = new SimilarityConsumer();
+    SimilarityBatchConsumer similarityBatchConsumer = new SimilarityBatchConsumer();
+    LifecycleConsumer lifecycleConsumer = new LifecycleConsumer();
 
     @FieldDefaults(level = AccessLevel.PRIVATE)
     @Data
@@ -51,11 +58,41 @@ public class KafkaConsumerConfig {
         boolean autoCommit;
         String keyDeserializer;
         String valueDeserializer;
+        // -- read_committed: оценки из прерванных транзакций агрегатора не применяются
+        String isolationLevel = "read_uncommitted";
         String topicEventsSimilarity;
     }
 
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    @Data
+    public static class SimilarityBatchConsumer {
+        boolean enabled = true;
+        String bootstrapServers;
+        String groupId;
+        String clientId;
+        boolean autoCommit;
+        String keyDeserializer;
+        String valueDeserializer;
+        String isolationLevel = "read_uncommitted";
+        String topicEventsSimilarityBatch;
+    }
+
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    @Data
+    public static class LifecycleConsumer {
+        String bootstrapServers;
+        // -- Уникальная группа на экземпляр: каждый анализатор строит своё множество событий
+        String groupId;
+        String clientId;
+        String keyDeserializer;
+        String valueDeserializer;
+        // -- Пауза без сообщений, после которой дочитывание топика проверяется по позиции потребителя
+        long idleEventInterval = 5000;
+        String topicEventLifecycle;
+    }
+
     @Bean
-    public ConsumerFactory<String, UserActionAvro> userConsumerFactory() {
+    public ConsumerFactory<String, UserActionAvro> userConsumerFactory(MeterRegistry meterRegistry) {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, userConsumer.getBootstrapServers());
         props.put(ConsumerConfig.GROUP_ID_CONFIG, userConsumer.getGroupId());
@@ -66,14 +103,15 @@ public class KafkaConsumerConfig {
 
         log.debug("Создание userConsumerFactory с конфигурацией: {}", props);
 
-        return new DefaultKafkaConsumerFactory<>(props);
+        return withMetrics(new DefaultKafkaConsumerFactory<>(props), meterRegistry);
     }
 
     @Bean(name = "userActionKafkaListenerFactory")
-    public ConcurrentKafkaListenerContainerFactory<String, UserActionAvro> userKafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, UserActionAvro> userKafkaListenerContainerFactory(
+            ConsumerFactory<String, UserActionAvro> userConsumerFactory) {
         ConcurrentKafkaListenerContainerFactory<String, UserActionAvro> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(userConsumerFactory());
+        factory.setConsumerFactory(userConsumerFactory);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
 
         log.debug("Создание userActionKafkaListenerFactory для чтения сообщений на темы: {}",
@@ -83,7 +121,7 @@ public class KafkaConsumerConfig {
     }
 
     @Bean
-    public ConsumerFactory<String, EventSimilarityAvro> similarityConsumerFactory() {
+    public ConsumerFactory<String, EventSimilarityAvro> similarityConsumerFactory(MeterRegistry meterRegistry) {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, similarityConsumer.getBootstrapServers());
         props.put(ConsumerConfig.GROUP_ID_CONFIG, similarityConsumer.getGroupId());
@@ -91,17 +129,19 @@ public class KafkaConsumerConfig {
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, similarityConsumer.getKeyDeserializer());
         props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, similarityConsumer.getValueDeserializer());
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, similarityConsumer.isAutoCommit());
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, similarityConsumer.getIsolationLevel());
 
         log.debug("Создание similarityConsumerFactory с конфигурацией: {}", props);
 
-        return new DefaultKafkaConsumerFactory<>(props);
+        return withMetrics(new DefaultKafkaConsumerFactory<>(props), meterRegistry);
     }
 
     @Bean(name = "similarityKafkaListenerFactory")
-    public ConcurrentKafkaListenerContainerFactory<String, EventSimilarityAvro> similarityKafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, EventSimilarityAvro> similarityKafkaListenerContainerFactory(
+            ConsumerFactory<String, EventSimilarityAvro> similarityConsumerFactory) {
         ConcurrentKafkaListenerContainerFactory<String, EventSimilarityAvro> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(similarityConsumerFactory());
+        factory.setConsumerFactory(similarityConsumerFactory);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
 
         log.debug("Создание similarityKafkaListenerFactory для чтения сообщений на темы: {}",
@@ -109,5 +149,77 @@ public class KafkaConsumerConfig {
 
         return factory;
     }
-}
 
+    @Bean
+    public ConsumerFactory<String, EventSimilarityBatchAvro> similarityBatchConsumerFactory(MeterRegistry meterRegistry) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, similarityBatchConsumer.getBootstrapServers());
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, similarityBatchConsumer.getGroupId());
+        props.put(ConsumerConfig.CLIENT_ID_CONFIG, similarityBatchConsumer.getClientId());
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, similarityBatchConsumer.getKeyDeserializer());
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, similarityBatchConsumer.getValueDeserializer());
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, similarityBatchConsumer.isAutoCommit());
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, similarityBatchConsumer.getIsolationLevel());
+
+        log.debug("Создание similarityBatchConsumerFactory с конфигурацией: {}", props);
+
+        return withMetrics(new DefaultKafkaConsumerFactory<>(props), meterRegistry);
+    }
+
+    @Bean(name = "similarityBatchKafkaListenerFactory")
+    public ConcurrentKafkaListenerContainerFactory<String, EventSimilarityBatchAvro>
+            similarityBatchKafkaListenerContainerFactory(
+            ConsumerFactory<String, EventSimilarityBatchAvro> similarityBatchConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, EventSimilarityBatchAvro> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(similarityBatchConsumerFactory);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        factory.setAutoStartup(similarityBatchConsumer.isEnabled());
+
+        log.debug("Создание similarityBatchKafkaListenerFactory для чтения сообщений на темы: {}",
+                similarityBatchConsumer.getTopicEventsSimilarityBatch());
+
+        return factory;
+    }
+
+    @Bean
+    public ConsumerFactory<String, EventLifecycleAvro> lifecycleConsumerFactory(MeterRegistry meterRegistry) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, lifecycleConsumer.getBootstrapServers());
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, lifecycleConsumer.getGroupId());
+        props.put(ConsumerConfig.CLIENT_ID_CONFIG, lifecycleConsumer.getClientId());
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, lifecycleConsumer.getKeyDeserializer());
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, lifecycleConsumer.getValueDeserializer());
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+
+        log.debug("Создание lifecycleConsumerFactory с конфигурацией: {}", props);
+
+        return withMetrics(new DefaultKafkaConsumerFactory<>(props), meterRegistry);
+    }
+
+    @Bean(name = "lifecycleKafkaListenerFactory")
+    public ConcurrentKafkaListenerContainerFactory<String, EventLifecycleAvro> lifecycleKafkaListenerContainerFactory(
+            ConsumerFactory<String, EventLifecycleAvro> lifecycleConsumerFactory,
+            EventLifecycleListener eventLifecycleListener) {
+        ConcurrentKafkaListenerContainerFactory<String, EventLifecycleAvro> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(lifecycleConsumerFactory);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setIdleEventInterval(lifecycleConsumer.getIdleEventInterval());
+        // -- Концы партиций при назначении: по ним слушатель определяет, что история топика прочитана
+        factory.getContainerProperties().setConsumerRebalanceListener(eventLifecycleListener);
+
+        log.debug("Создание lifecycleKafkaListenerFactory для чтения сообщений на темы: {}",
+                lifecycleConsumer.getTopicEventLifecycle());
+
+        return factory;
+    }
+
+    // -- Фабрики созданы вручную, поэтому метрики клиента Kafka (в том числе records-lag) подключаются явно
+    private static <V> ConsumerFactory<String, V> withMetrics(DefaultKafkaConsumerFactory<String, V> factory,
+                                                              MeterRegistry meterRegistry) {
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
+    }
+}
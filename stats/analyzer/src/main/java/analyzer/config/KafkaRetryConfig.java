@@ -0,0 +1,69 @@
+package analyzer.config;
+
+import analyzer.kafka.DeadLetterListener;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafkaRetryTopic;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
+import org.springframework.kafka.support.EndpointHandlerMethod;
+
+/**
+ * Неблокирующие повторы: упавшая запись уходит в топик повтора со своей задержкой,
+ * а после последней попытки — в DLT. Основные партиции при этом читаются без остановки.
+ */
+@Configuration
+@EnableKafkaRetryTopic
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+@SuppressWarnings("unused")
+public class KafkaRetryConfig {
+    KafkaRetryProperties retryProperties;
+    KafkaConsumerConfig consumerConfig;
+
+    @Bean
+    public RetryTopicConfiguration userActionRetryTopic(KafkaTemplate<String, Object> kafkaTemplate) {
+        return retryTopic(kafkaTemplate, consumerConfig.getUserConsumer().getTopicUserActions(),
+                "userActionKafkaListenerFactory");
+    }
+
+    @Bean
+    public RetryTopicConfiguration similarityRetryTopic(KafkaTemplate<String, Object> kafkaTemplate) {
+        return retryTopic(kafkaTemplate, consumerConfig.getSimilarityConsumer().getTopicEventsSimilarity(),
+                "similarityKafkaListenerFactory");
+    }
+
+    @Bean
+    public RetryTopicConfiguration similarityBatchRetryTopic(KafkaTemplate<String, Object> kafkaTemplate) {
+        return retryTopic(kafkaTemplate,
+                consumerConfig.getSimilarityBatchConsumer().getTopicEventsSimilarityBatch(),
+                "similarityBatchKafkaListenerFactory");
+    }
+
+    private RetryTopicConfiguration retryTopic(KafkaTemplate<String, Object> kafkaTemplate,
+                                               String topic, String listenerFactory) {
+        log.debug("Настройка повторов для топика {}: попыток={}, задержка={}мс x{} (не более {}мс)",
+                topic, retryProperties.getMaxAttempts(), retryProperties.getInitialInterval(),
+                retryProperties.getMultiplier(), retryProperties.getMaxInterval());
+
+        return RetryTopicConfigurationBuilder.newInstance()
+                .maxAttempts(retryProperties.getMaxAttempts())
+                .exponentialBackoff(retryProperties.getInitialInterval(), retryProperties.getMultiplier(),
+                        retryProperties.getMaxInterval())
+                .retryTopicSuffix(retryProperties.getRetryTopicSuffix())
+                .dltSuffix(retryProperties.getDltSuffix())
+                .suffixTopicsWithIndexValues()
+                .autoCreateTopicsWith(retryProperties.getTopicPartitions(),
+                        retryProperties.getTopicReplicationFactor())
+                .listenerFactory(listenerFactory)
+                .dltHandlerMethod(new EndpointHandlerMethod(DeadLetterListener.class, "handleDeadLetter"))
+                .includeTopic(topic)
+                .create(kafkaTemplate);
+    }
+}
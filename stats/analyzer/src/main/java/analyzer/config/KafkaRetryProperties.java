@@ -0,0 +1,24 @@
+package analyzer.config;
+
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "analyzer.kafka.retry")
+@Data
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class KafkaRetryProperties {
+    // -- Всего попыток, включая первую в основном топике; остальные идут через топики повторов
+    int maxAttempts = 4;
+    long initialInterval = 1_000;
+    double multiplier = 5.0;
+    long maxInterval = 60_000;
+    String retryTopicSuffix = "-retry";
+    String dltSuffix = "-dlt";
+    int topicPartitions = 1;
+    short topicReplicationFactor = 1;
+    String replayGroupId = "analyzer-dlq-replay";
+}
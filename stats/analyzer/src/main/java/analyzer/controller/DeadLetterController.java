@@ -0,0 +1,30 @@
+package analyzer.controller;
+
+import analyzer.dto.DeadLetterReplayResult;
+import analyzer.service.impl.DeadLetterService;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/dlq")
+@RequiredArgsConstructor
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@SuppressWarnings("unused")
+public class DeadLetterController {
+    DeadLetterService deadLetterService;
+
+    @PostMapping("/{topic}/replay")
+    public DeadLetterReplayResult replay(@PathVariable String topic,
+                                         @RequestParam(defaultValue = "1000") int max) {
+        log.info("Запрос на повторную отправку записей из DLT топика {}", topic);
+        return deadLetterService.replay(topic, max);
+    }
+}
@@ -0,0 +1,69 @@
+package analyzer.eligibility;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.ewm.stats.avro.EventLifecycleAvro;
+import ru.practicum.ewm.stats.avro.EventLifecycleStateAvro;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Опубликованные и ещё не прошедшие события, которые можно рекомендовать.
+ * Заполняется из компактируемого топика жизненного цикла событий; хранит id и дату события.
+ * Пока топик не дочитан после старта, фильтр пропускает все события, чтобы не оставить
+ * пользователя без рекомендаций.
+ */
+@Component
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class EventEligibility {
+    final Map<Long, Long> upcomingPublished = new ConcurrentHashMap<>();
+    final boolean enabled;
+    volatile boolean ready;
+
+    public EventEligibility(MeterRegistry meterRegistry,
+                            @Value("${analyzer.eligibility.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+        Gauge.builder("analyzer.eligibility.events", upcomingPublished, Map::size)
+                .description("Опубликованные будущие события, доступные для рекомендаций")
+                .register(meterRegistry);
+    }
+
+    public void apply(EventLifecycleAvro message) {
+        long eventDate = message.getEventDate().toEpochMilli();
+        if (message.getState() == EventLifecycleStateAvro.PUBLISHED && eventDate > System.currentTimeMillis()) {
+            upcomingPublished.put(message.getEventId(), eventDate);
+        } else {
+            upcomingPublished.remove(message.getEventId());
+        }
+    }
+
+    public boolean isEligible(long eventId) {
+        if (!enabled || !ready) {
+            return true;
+        }
+        Long eventDate = upcomingPublished.get(eventId);
+        return eventDate != null && eventDate > System.currentTimeMillis();
+    }
+
+    public void markReady() {
+        if (!ready) {
+            ready = true;
+            log.info("Топик жизненного цикла дочитан, фильтр рекомендаций включён: {} событий", upcomingPublished.size());
+        }
+    }
+
+    // -- Прошедшие события не получат нового сообщения, поэтому удаляются по дате
+    @Scheduled(fixedDelayString = "${analyzer.eligibility.prune-interval:PT10M}")
+    public void prune() {
+        long now = System.currentTimeMillis();
+        upcomingPublished.values().removeIf(eventDate -> eventDate <= now);
+    }
+}
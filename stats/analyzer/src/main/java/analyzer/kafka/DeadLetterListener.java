@@ -0,0 +1,32 @@
+package analyzer.kafka;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+/**
+ * Обработчик DLT: запись остаётся в топике для ручного разбора и повторной отправки через /admin/dlq.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@SuppressWarnings("unused")
+public class DeadLetterListener {
+    RetryTierMetrics metrics;
+
+    public void handleDeadLetter(ConsumerRecord<String, Object> record,
+                                 @Header(value = KafkaHeaders.DLT_EXCEPTION_MESSAGE, required = false) String error,
+                                 Acknowledgment ack) {
+        log.error("Запись перемещена в DLT {} после исчерпания попыток: value={}, ошибка: {}",
+                record.topic(), record.value(), error);
+        metrics.deadLettered(record.topic());
+        ack.acknowledge();
+    }
+}
@@ -0,0 +1,98 @@
+package analyzer.kafka;
+
+import analyzer.eligibility.EventEligibility;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+import ru.practicum.ewm.stats.avro.EventLifecycleAvro;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Чтение топика жизненного цикла событий. Концы партиций запоминаются при назначении,
+ * и фильтр рекомендаций включается, когда позиция потребителя дошла до них во всех партициях.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@SuppressWarnings("unused")
+public class EventLifecycleListener implements ConsumerAwareRebalanceListener {
+    private static final String LISTENER_ID = "event-lifecycle";
+
+    EventEligibility eventEligibility;
+    // -- Партиции, ещё не дочитанные до конца на момент назначения, и этот конец
+    Map<TopicPartition, Long> catchUpOffsets = new ConcurrentHashMap<>();
+
+    // -- Смещения не фиксируются: при каждом старте компактируемый топик читается с начала
+    @KafkaListener(
+            id = LISTENER_ID,
+            topics = "${spring.kafka.lifecycle-consumer.topic-event-lifecycle}",
+            containerFactory = "lifecycleKafkaListenerFactory"
+    )
+    public void handleLifecycle(@Payload EventLifecycleAvro avro,
+                                @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                                @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                                @Header(KafkaHeaders.OFFSET) long offset) {
+        log.debug("Получено изменение жизненного цикла события: value={}", avro);
+        eventEligibility.apply(avro);
+
+        TopicPartition topicPartition = new TopicPartition(topic, partition);
+        Long endOffset = catchUpOffsets.get(topicPartition);
+        if (endOffset != null && offset + 1 >= endOffset) {
+            catchUpOffsets.remove(topicPartition);
+            markReadyIfCaughtUp();
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        consumer.endOffsets(partitions).forEach((topicPartition, endOffset) -> {
+            if (consumer.position(topicPartition) < endOffset) {
+                catchUpOffsets.put(topicPartition, endOffset);
+            }
+        });
+        log.info("Назначены партиции жизненного цикла {}, осталось дочитать до {}", partitions, catchUpOffsets);
+        markReadyIfCaughtUp();
+    }
+
+    // -- Последние смещения компактируемого топика могут не дойти до слушателя,
+    // -- поэтому в простое дочитывание проверяется по позиции потребителя
+    @EventListener(condition = "event.listenerId.startsWith('" + LISTENER_ID + "')")
+    public void onIdle(ListenerContainerIdleEvent event) {
+        Collection<TopicPartition> partitions = event.getTopicPartitions();
+        if (partitions == null || partitions.isEmpty()) {
+            return;
+        }
+        Consumer<?, ?> consumer = event.getConsumer();
+        for (TopicPartition topicPartition : partitions) {
+            Long endOffset = catchUpOffsets.get(topicPartition);
+            if (endOffset != null && consumer.position(topicPartition) >= endOffset) {
+                catchUpOffsets.remove(topicPartition);
+            }
+        }
+        markReadyIfCaughtUp();
+    }
+
+    private void markReadyIfCaughtUp() {
+        if (catchUpOffsets.isEmpty()) {
+            eventEligibility.markReady();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package analyzer.kafka;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Счётчики обработки записей по топикам: основной топик, каждый уровень повторов и DLT
+ * различаются тегом topic.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class RetryTierMetrics {
+    MeterRegistry meterRegistry;
+    Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public void processed(String topic) {
+        counter(topic, "processed").increment();
+    }
+
+    public void failed(String topic) {
+        counter(topic, "failed").increment();
+    }
+
+    public void deadLettered(String topic) {
+        counter(topic, "dead-lettered").increment();
+    }
+
+    public void replayed(String topic, long count) {
+        counter(topic, "replayed").increment(count);
+    }
+
+    private Counter counter(String topic, String outcome) {
+        return counters.computeIfAbsent(topic + '|' + outcome, key -> Counter.builder("analyzer.kafka.records")
+                .description("Записи Kafka по топикам и уровням повторов")
+                .tag("topic", topic)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+}
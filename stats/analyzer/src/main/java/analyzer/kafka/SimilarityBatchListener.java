@@ -0,0 +1,55 @@
+package analyzer.kafka;
+
+import analyzer.service.impl.SimilarityService;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+import ru.practicum.ewm.stats.avro.EventSimilarityBatchAvro;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@SuppressWarnings("unused")
+public class SimilarityBatchListener {
+    SimilarityService similarityService;
+    RetryTierMetrics metrics;
+
+    @KafkaListener(
+            topics = "${spring.kafka.similarity-batch-consumer.topic-events-similarity-batch}",
+            containerFactory = "similarityBatchKafkaListenerFactory"
+    )
+    public void handleSimilarityBatch(
+            @Payload EventSimilarityBatchAvro batch,
+            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+            Acknowledgment ack) {
+
+        log.debug("Получена пачка коэффициентов схожести: sourceEvent={}, size={}",
+                batch.getSourceEvent(), batch.getEntries().size());
+
+        try {
+            similarityService.handleSimilarityBatch(batch);
+            ack.acknowledge();
+            metrics.processed(topic);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Нарушение целостности данных для пачки коэффициентов: sourceEvent={}, ошибка: {}",
+                    batch.getSourceEvent(), e.getMessage());
+            ack.acknowledge();
+        } catch (RuntimeException e) {
+            log.error("Критическая ошибка при обработке пачки коэффициентов схожести: sourceEvent={}",
+                    batch.getSourceEvent(), e);
+            metrics.failed(topic);
+
+            // -- Запись уйдёт в следующий топик повтора, основной поток не останавливается
+            throw e;
+        }
+    }
+}
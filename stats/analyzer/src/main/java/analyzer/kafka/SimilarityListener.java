@@ -8,6 +8,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 import ru.practicum.ewm.stats.avro.EventSimilarityAvro;
@@ -19,6 +21,7 @@ import ru.practicum.ewm.stats.avro.EventSimilarityAvro;
 @SuppressWarnings("unused")
 public class SimilarityListener {
     SimilarityService similarityService;
+    RetryTierMetrics metrics;
 
     @KafkaListener(
             topics = "${spring.kafka.similarity-consumer.topic-events-similarity}",
@@ -26,6 +29,7 @@ public class SimilarityListener {
     )
     public void handleSimilarity(
             @Payload EventSimilarityAvro avro,
+            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
             Acknowledgment ack) {
 
         log.info("Получен коэффициент схожести: value={}", avro);
@@ -33,14 +37,18 @@ public class SimilarityListener {
         try {
             similarityService.handleSimilarity(avro);
             ack.acknowledge();
+            metrics.processed(topic);
             log.debug("Коэффициент схожести успешно обработан: eventA={}, eventB={}",
                     avro.getEventA(), avro.getEventB());
         } catch (DataIntegrityViolationException e) {
             log.warn("Нарушение целостности данных для коэффициента: {}, ошибка: {}", avro, e.getMessage());
             ack.acknowledge();
-        } catch (Exception e) {
+        } catch (RuntimeException e) {
             log.error("Критическая ошибка при обработке коэффициента схожести: {}", avro, e);
-            ack.acknowledge();
+            metrics.failed(topic);
+
+            // -- Запись уйдёт в следующий топик повтора, основной поток не останавливается
+            throw e;
         }
     }
 }
@@ -8,6 +8,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 import ru.practicum.ewm.stats.avro.UserActionAvro;
@@ -19,6 +21,7 @@ import ru.practicum.ewm.stats.avro.UserActionAvro;
 @SuppressWarnings("unused")
 public class UserActionListener {
     UserActionService userActionService;
+    RetryTierMetrics metrics;
 
     @KafkaListener(
             topics = "${spring.kafka.user-consumer.topic-user-actions}",
@@ -26,6 +29,7 @@ public class UserActionListener {
     )
     public void handleUserAction(
             @Payload UserActionAvro avro,
+            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
             Acknowledgment ack) {
 
         log.info("Получено действие пользователя: value={}", avro);
@@ -33,15 +37,18 @@ public class UserActionListener {
         try {
             userActionService.handleUserAction(avro);
             ack.acknowledge();
+            metrics.processed(topic);
             log.debug("Действие пользователя успешно обработано: userId={}, eventId={}",
                     avro.getUserId(), avro.getEventId());
         } catch (DataIntegrityViolationException e) {
             log.warn("Нарушение целостности данных для действия: {}, ошибка: {}", avro, e.getMessage());
             ack.acknowledge();
-        } catch (Exception e) {
+        } catch (RuntimeException e) {
             log.error("Критическая ошибка при обработке действия пользователя: {}", avro, e);
+            metrics.failed(topic);
 
-            ack.acknowledge();
+            // -- Запись уйдёт в следующий топик повтора, основной поток не останавливается
+            throw e;
         }
     }
 }
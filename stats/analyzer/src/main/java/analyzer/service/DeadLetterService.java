@@ -0,0 +1,7 @@
+package analyzer.service;
+
+import analyzer.dto.DeadLetterReplayResult;
+
+public interface DeadLetterService {
+    DeadLetterReplayResult replay(String topic, int maxRecords);
+}
@@ -1,7 +1,10 @@
 package analyzer.service;
 
 import ru.practicum.ewm.stats.avro.EventSimilarityAvro;
+import ru.practicum.ewm.stats.avro.EventSimilarityBatchAvro;
 
 public interface SimilarityService {
     void handleSimilarity(EventSimilarityAvro avro);
+
+    void handleSimilarityBatch(EventSimilarityBatchAvro batch);
 }
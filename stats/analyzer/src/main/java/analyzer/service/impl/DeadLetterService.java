@@ -0,0 +1,136 @@
+package analyzer.service.impl;
+
+import analyzer.config.KafkaConsumerConfig;
+import analyzer.config.KafkaRetryProperties;
+import analyzer.dto.DeadLetterReplayResult;
+import analyzer.kafka.RetryTierMetrics;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Повторная отправка записей из DLT в исходный топик. Значения переносятся байтами, без десериализации,
+ * а прочитанная позиция хранится в отдельной группе, поэтому каждая запись переотправляется один раз.
+ */
+@Service
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class DeadLetterService implements analyzer.service.DeadLetterService {
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+
+    KafkaRetryProperties retryProperties;
+    RetryTierMetrics metrics;
+    Set<String> sourceTopics;
+    String bootstrapServers;
+
+    public DeadLetterService(KafkaRetryProperties retryProperties,
+                             KafkaConsumerConfig consumerConfig,
+                             RetryTierMetrics metrics,
+                             @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers) {
+        this.retryProperties = retryProperties;
+        this.metrics = metrics;
+        this.bootstrapServers = bootstrapServers;
+        this.sourceTopics = Set.of(
+                consumerConfig.getUserConsumer().getTopicUserActions(),
+                consumerConfig.getSimilarityConsumer().getTopicEventsSimilarity(),
+                consumerConfig.getSimilarityBatchConsumer().getTopicEventsSimilarityBatch());
+    }
+
+    @Override
+    public synchronized DeadLetterReplayResult replay(String topic, int maxRecords) {
+        if (!sourceTopics.contains(topic)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Неизвестный топик: " + topic);
+        }
+        if (maxRecords <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Количество записей должно быть положительным");
+        }
+
+        String deadLetterTopic = topic + retryProperties.getDltSuffix();
+        log.info("Повторная отправка из {} в {}: не более {} записей", deadLetterTopic, topic, maxRecords);
+
+        long replayed = 0;
+        try (KafkaConsumer<String, byte[]> consumer = createConsumer();
+             KafkaProducer<String, byte[]> producer = createProducer()) {
+            List<TopicPartition> partitions = consumer.partitionsFor(deadLetterTopic).stream()
+                    .map(info -> new TopicPartition(info.topic(), info.partition()))
+                    .toList();
+            if (partitions.isEmpty()) {
+                return new DeadLetterReplayResult(topic, deadLetterTopic, 0);
+            }
+            consumer.assign(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+
+            while (replayed < maxRecords && !reachedEnd(consumer, endOffsets)) {
+                Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+
+                for (ConsumerRecord<String, byte[]> record : consumer.poll(POLL_TIMEOUT)) {
+                    if (replayed >= maxRecords) {
+                        break;
+                    }
+                    // -- Заголовки DLT и повторов не переносим: запись проходит обработку заново
+                    producer.send(new ProducerRecord<>(topic, record.key(), record.value())).get();
+                    offsets.put(new TopicPartition(record.topic(), record.partition()),
+                            new OffsetAndMetadata(record.offset() + 1));
+                    replayed++;
+                }
+
+                if (!offsets.isEmpty()) {
+                    consumer.commitSync(offsets);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Повторная отправка из DLT прервана", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Не удалось отправить запись из DLT в топик " + topic, e.getCause());
+        } finally {
+            metrics.replayed(deadLetterTopic, replayed);
+        }
+
+        log.info("Из {} в {} повторно отправлено записей: {}", deadLetterTopic, topic, replayed);
+        return new DeadLetterReplayResult(topic, deadLetterTopic, replayed);
+    }
+
+    private KafkaConsumer<String, byte[]> createConsumer() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, retryProperties.getReplayGroupId());
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        return new KafkaConsumer<>(props, new StringDeserializer(), new ByteArrayDeserializer());
+    }
+
+    private KafkaProducer<String, byte[]> createProducer() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        return new KafkaProducer<>(props, new StringSerializer(), new ByteArraySerializer());
+    }
+
+    private static boolean reachedEnd(KafkaConsumer<?, ?> consumer, Map<TopicPartition, Long> endOffsets) {
+        return endOffsets.entrySet().stream()
+                .allMatch(entry -> consumer.position(entry.getKey()) >= entry.getValue());
+    }
+}
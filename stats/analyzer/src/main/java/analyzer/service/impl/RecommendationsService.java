@@ -1,15 +1,18 @@
 package analyzer.service.impl;
 
+import analyzer.eligibility.EventEligibility;
 import analyzer.model.Recommendation;
 import analyzer.repository.EventSimilarityRepository;
 import analyzer.repository.UserActionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.AccessLevel;
-import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.grpc.ewm.dashboard.message.InteractionsCountRequestProto;
@@ -17,21 +20,53 @@ import ru.practicum.grpc.ewm.dashboard.message.RecommendedEventProto;
 import ru.practicum.grpc.ewm.dashboard.message.SimilarEventsRequestProto;
 import ru.practicum.grpc.ewm.dashboard.message.UserPredictionsRequestProto;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 @Transactional(readOnly = true)
 public class RecommendationsService implements analyzer.service.RecommendationsService {
     UserActionRepository userActionRepository;
     EventSimilarityRepository eventSimilarityRepository;
+    EventEligibility eventEligibility;
+    // -- Сколько страниц кандидатов дочитывать, если часть из них отсеяна фильтром актуальности
+    int maxCandidatePages;
+
+    // -- Время каждого запроса к БД; таймеры регистрируются заранее, чтобы не искать их на каждом вызове
+    Timer recentEventsTimer;
+    Timer userEventsTimer;
+    Timer candidatesTimer;
+    Timer neighboursTimer;
+    Timer userWeightsTimer;
+    Timer similarEventsTimer;
+    Timer interactionWeightsTimer;
+
+    public RecommendationsService(UserActionRepository userActionRepository,
+                                  EventSimilarityRepository eventSimilarityRepository,
+                                  EventEligibility eventEligibility,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${analyzer.eligibility.max-candidate-pages:5}") int maxCandidatePages) {
+        this.userActionRepository = userActionRepository;
+        this.eventSimilarityRepository = eventSimilarityRepository;
+        this.eventEligibility = eventEligibility;
+        this.maxCandidatePages = maxCandidatePages;
+        this.recentEventsTimer = queryTimer(meterRegistry, "recent-events");
+        this.userEventsTimer = queryTimer(meterRegistry, "user-events");
+        this.candidatesTimer = queryTimer(meterRegistry, "candidates");
+        this.neighboursTimer = queryTimer(meterRegistry, "neighbours");
+        this.userWeightsTimer = queryTimer(meterRegistry, "user-weights");
+        this.similarEventsTimer = queryTimer(meterRegistry, "similar-events");
+        this.interactionWeightsTimer = queryTimer(meterRegistry, "interaction-weights");
+    }
 
     @Override
     public List<RecommendedEventProto> getRecommendationsForUser(UserPredictionsRequestProto request) {
@@ -40,7 +75,9 @@ public class RecommendationsService implements analyzer.service.RecommendationsS
         log.info("Запрос персонализированных рекомендаций для userId={}, limit={}", userId, limit);
 
         Pageable recentInteractionsPageable = PageRequest.of(0, limit);
+        long start = System.nanoTime();
         List<Long> recentEventIds = userActionRepository.findRecentEventIdsByUserId(userId, recentInteractionsPageable);
+        record(recentEventsTimer, start);
 
         if (recentEventIds.isEmpty()) {
             log.warn("Для userId={} не найдено недавних действий.", userId);
@@ -48,14 +85,16 @@ public class RecommendationsService implements analyzer.service.RecommendationsS
         }
 
         // -- Найти похожие новые события, исключая все, что пользователь уже видел.
+        start = System.nanoTime();
         Set<Long> allUserEvents = userActionRepository.findEventIdsByUserId(userId);
-
-        Pageable candidatesPageable = PageRequest.of(0, limit);
-        List<Recommendation> candidateRecs = eventSimilarityRepository.findTopSimilarToSetExcluding(
-                recentEventIds,
-                allUserEvents,
-                candidatesPageable
-        );
+        record(userEventsTimer, start);
+
+        List<Recommendation> candidateRecs = findEligible(limit, Sort.unsorted(), candidatesTimer,
+                pageable -> eventSimilarityRepository.findTopSimilarToSetExcluding(
+                        recentEventIds,
+                        allUserEvents,
+                        pageable
+                ));
         Set<Long> candidateEventIds = candidateRecs.stream().map(Recommendation::getEventId).collect(Collectors.toSet());
 
         if (candidateEventIds.isEmpty()) {
@@ -64,18 +103,22 @@ public class RecommendationsService implements analyzer.service.RecommendationsS
         }
 
         // -- найти ближайших просмотренных соседей для всех кандидатов.
+        start = System.nanoTime();
         Map<Long, List<Recommendation>> neighboursMap = eventSimilarityRepository.findNeighbourEventsFrom(
                 candidateEventIds,
                 allUserEvents,
                 limit
         );
+        record(neighboursTimer, start);
 
         // -- Получить оценки пользователя для всех найденных соседей
         Set<Long> allNeighbourIds = neighboursMap.values().stream()
                 .flatMap(List::stream)
                 .map(Recommendation::getEventId)
                 .collect(Collectors.toSet());
+        start = System.nanoTime();
         Map<Long, Double> userRatings = userActionRepository.findWeightsByUserIdAndEventIds(userId, allNeighbourIds);
+        record(userWeightsTimer, start);
 
         // -- Вычисляем финальный score
         List<RecommendedEventProto> finalRecommendations = candidateEventIds.stream()
@@ -118,15 +161,18 @@ public class RecommendationsService implements analyzer.service.RecommendationsS
         int limit = (int) request.getMaxResult();
         log.info("Запрос похожих событий для eventId={}, исключая для userId={}, limit={}", eventId, userId, limit);
 
+        long start = System.nanoTime();
         Set<Long> seenEventIds = userActionRepository.findEventIdsByUserId(userId);
+        record(userEventsTimer, start);
         seenEventIds.add(eventId);
 
-        Pageable pageable = PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "score"));
-        List<Recommendation> similarEvents = eventSimilarityRepository.findTopSimilarExcluding(
-                eventId,
-                seenEventIds,
-                pageable
-        );
+        List<Recommendation> similarEvents = findEligible(limit, Sort.by(Sort.Direction.DESC, "score"),
+                similarEventsTimer,
+                pageable -> eventSimilarityRepository.findTopSimilarExcluding(
+                        eventId,
+                        seenEventIds,
+                        pageable
+                ));
 
         log.info("Найдено {} похожих событий для eventId={}", similarEvents.size(), eventId);
         return similarEvents.stream()
@@ -145,7 +191,9 @@ public class RecommendationsService implements analyzer.service.RecommendationsS
         }
         log.info("Запрос суммы весов взаимодействий для {} событий", eventIds.size());
 
+        long start = System.nanoTime();
         Map<Long, Double> eventWeights = userActionRepository.getAggregatedWeightsForEvents(eventIds);
+        record(interactionWeightsTimer, start);
 
         return eventIds.stream()
                 .map(eventId -> RecommendedEventProto.newBuilder()
@@ -155,4 +203,39 @@ public class RecommendationsService implements analyzer.service.RecommendationsS
                 .sorted(Comparator.comparing(RecommendedEventProto::getScore).reversed())
                 .collect(Collectors.toList());
     }
+
+    // -- Кандидаты отбираются по множеству опубликованных будущих событий до вычисления оценок;
+    // -- страницы дочитываются, пока не наберётся limit подходящих или не кончатся данные
+    private List<Recommendation> findEligible(int limit, Sort sort, Timer timer,
+                                              Function<Pageable, List<Recommendation>> fetch) {
+        List<Recommendation> eligible = new ArrayList<>(limit);
+        for (int page = 0; page < maxCandidatePages && eligible.size() < limit; page++) {
+            long start = System.nanoTime();
+            List<Recommendation> candidates = fetch.apply(PageRequest.of(page, limit, sort));
+            record(timer, start);
+            for (Recommendation candidate : candidates) {
+                if (eventEligibility.isEligible(candidate.getEventId())) {
+                    eligible.add(candidate);
+                    if (eligible.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            if (candidates.size() < limit) {
+                break;
+            }
+        }
+        return eligible;
+    }
+
+    private static Timer queryTimer(MeterRegistry meterRegistry, String query) {
+        return Timer.builder("analyzer.query")
+                .description("Время запросов к БД при расчёте рекомендаций")
+                .tag("query", query)
+                .register(meterRegistry);
+    }
+
+    private static void record(Timer timer, long start) {
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
 }
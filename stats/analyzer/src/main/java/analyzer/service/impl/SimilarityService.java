@@ -3,26 +3,44 @@ package analyzer.service.impl;
 import analyzer.mapper.SimilarityMapper;
 import analyzer.model.EventSimilarity;
 import analyzer.repository.EventSimilarityRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.AccessLevel;
-import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.ewm.stats.avro.EventSimilarityAvro;
+import ru.practicum.ewm.stats.avro.EventSimilarityBatchAvro;
+import ru.practicum.kafka.batch.SimilarityBatchCodec;
+
+import java.util.concurrent.TimeUnit;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 @Transactional
 public class SimilarityService implements analyzer.service.SimilarityService {
     EventSimilarityRepository similarityRepository;
     SimilarityMapper similarityMapper;
+    // -- Задержка от расчёта оценки в агрегаторе (timestamp сообщения) до её обработки анализатором
+    Timer latencyTimer;
+
+    public SimilarityService(EventSimilarityRepository similarityRepository, SimilarityMapper similarityMapper,
+                             MeterRegistry meterRegistry) {
+        this.similarityRepository = similarityRepository;
+        this.similarityMapper = similarityMapper;
+        this.latencyTimer = Timer.builder("analyzer.similarity.latency")
+                .description("Задержка от расчёта коэффициента схожести до его сохранения")
+                .register(meterRegistry);
+    }
 
     @Override
     public void handleSimilarity(EventSimilarityAvro avro) {
         log.info("Создание схожести события: {}", avro);
+        if (avro.getTimestamp() != null) {
+            latencyTimer.record(System.currentTimeMillis() - avro.getTimestamp().toEpochMilli(), TimeUnit.MILLISECONDS);
+        }
 
         if (similarityRepository.existsByEventAAndEventB(avro.getEventA(), avro.getEventB())) {
             log.debug("Запись с eventA={} и eventB={} уже есть, пропускаем",
@@ -33,4 +51,13 @@ public class SimilarityService implements analyzer.service.SimilarityService {
         EventSimilarity similarity = similarityMapper.AvroSimilarityToEntity(avro);
         similarityRepository.save(similarity);
     }
-}
\ No newline at end of file
+
+    @Override
+    public void handleSimilarityBatch(EventSimilarityBatchAvro batch) {
+        log.info("Получена пачка из {} оценок для события {}", batch.getEntries().size(), batch.getSourceEvent());
+
+        for (EventSimilarityAvro avro : SimilarityBatchCodec.decode(batch)) {
+            handleSimilarity(avro);
+        }
+    }
+}
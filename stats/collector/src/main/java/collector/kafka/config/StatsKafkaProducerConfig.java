@@ -33,12 +33,17 @@ public class StatsKafkaProducerConfig {
     @Value("${spring.kafka.producer.topic.user-actions}")
     String userActionTopic;
 
+    // -- Сколько send() может ждать метаданных или места в буфере, прежде чем сообщение уйдёт в спул
+    @Value("${spring.kafka.producer.max-block-ms:5000}")
+    Long maxBlockMs;
+
     @Bean
     public ProducerFactory<String, Object> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, keySerializer);
         configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, valueSerializer);
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
 
         log.debug("Создание ProducerFactory с конфигурацией: {}", configProps);
 
@@ -1,35 +1,129 @@
 package collector.kafka.producer;
 
 import collector.kafka.config.StatsKafkaProducerConfig;
+import collector.spool.DiskSpool;
+import collector.spool.SpoolProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.AccessLevel;
-import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import ru.practicum.ewm.stats.avro.UserActionAvro;
+import ru.practicum.kafka.serializer.GeneralAvroSerializer;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class UserActionProducer {
     KafkaTemplate<String, Object> kafkaTemplate;
     StatsKafkaProducerConfig config;
+    DiskSpool spool;
+    GeneralAvroSerializer serializer = new GeneralAvroSerializer();
+    // -- Время от передачи сообщения продюсеру до подтверждения брокером
+    Timer sentTimer;
+    Timer failedTimer;
+    Counter spooledCounter;
+    // -- Запись в спул блокирующая, поэтому выполняется в отдельном потоке, а не в потоке ввода-вывода продюсера;
+    // -- один поток сохраняет порядок записей
+    ExecutorService spoolWriter;
+    AtomicInteger pendingSpoolWrites = new AtomicInteger();
+
+    public UserActionProducer(KafkaTemplate<String, Object> kafkaTemplate, StatsKafkaProducerConfig config,
+                              DiskSpool spool, SpoolProperties spoolProperties, MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.config = config;
+        this.spool = spool;
+        this.spoolWriter = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(spoolProperties.getAppendQueueCapacity()),
+                runnable -> new Thread(runnable, "collector-spool-writer"));
+        this.sentTimer = sendTimer(meterRegistry, "success");
+        this.failedTimer = sendTimer(meterRegistry, "failure");
+        this.spooledCounter = Counter.builder("collector.user-actions.spooled")
+                .description("Действия пользователей, сохранённые в спул вместо отправки в Kafka")
+                .register(meterRegistry);
+    }
 
     public void sendUserAction(UserActionAvro userAction) {
         String topicName = config.getUserActionTopic();
 
+        // -- Пока спул не разобран, новые сообщения встают за ним, чтобы не нарушать порядок
+        if (!spool.isEmpty() || pendingSpoolWrites.get() > 0) {
+            toSpool(topicName, userAction);
+            return;
+        }
+
         log.info("В топик: {} отправляется сообщение: {}", topicName, userAction);
-        kafkaTemplate.send(topicName, userAction)
-                .whenComplete((result, exception) -> {
-                    if (exception == null) {
-                        log.info("Сообщение о действии пользователя: {} успешно отправлено, смещение: {}",
-                                userAction, result.getRecordMetadata().offset());
-                    } else {
-                        log.error("Не удалось отправить сообщение о действии пользователя: {} : {}",
-                                userAction, exception.getMessage());
-                    }
-                });
+        long start = System.nanoTime();
+        try {
+            kafkaTemplate.send(topicName, userAction)
+                    .whenComplete((result, exception) -> {
+                        (exception == null ? sentTimer : failedTimer)
+                                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        if (exception == null) {
+                            log.info("Сообщение о действии пользователя: {} успешно отправлено, смещение: {}",
+                                    userAction, result.getRecordMetadata().offset());
+                        } else {
+                            log.error("Не удалось отправить сообщение о действии пользователя: {} : {}",
+                                    userAction, exception.getMessage());
+                            toSpool(topicName, userAction);
+                        }
+                    });
+        } catch (Exception e) {
+            // -- Буфер продюсера переполнен или метаданные недоступны дольше max.block.ms
+            log.error("Kafka не приняла сообщение о действии пользователя: {} : {}", userAction, e.getMessage());
+            toSpool(topicName, userAction);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // -- Дописываем принятые в очередь сообщения до закрытия спула
+        spoolWriter.shutdown();
+        if (!spoolWriter.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.error("Не все сообщения записаны в спул при остановке: {}", pendingSpoolWrites.get());
+        }
+    }
+
+    private void toSpool(String topicName, UserActionAvro userAction) {
+        pendingSpoolWrites.incrementAndGet();
+        try {
+            spoolWriter.execute(() -> {
+                try {
+                    append(topicName, userAction);
+                } finally {
+                    pendingSpoolWrites.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingSpoolWrites.decrementAndGet();
+            log.error("Очередь записи в спул переполнена, сообщение о действии пользователя потеряно: {}", userAction);
+        }
+    }
+
+    private void append(String topicName, UserActionAvro userAction) {
+        if (spool.append(serializer.serialize(topicName, userAction))) {
+            spooledCounter.increment();
+            log.info("Сообщение о действии пользователя сохранено в спул: {}", userAction);
+        } else {
+            log.error("Сообщение о действии пользователя потеряно: {}", userAction);
+        }
+    }
+
+    private static Timer sendTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("collector.user-actions.send")
+                .description("Время подтверждения отправки действия пользователя в Kafka")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,315 @@
+package collector.spool;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Дисковая очередь сообщений, которые не удалось передать в Kafka.
+ * Данные пишутся в кольцо сегментов, отображённых в память; позиция чтения хранится в отдельном файле,
+ * поэтому после перезапуска отправка продолжается с первой неподтверждённой записи.
+ */
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class DiskSpool {
+    static final String SEGMENT_SUFFIX = ".seg";
+    static final String CURSOR_FILE = "cursor";
+
+    final SpoolProperties properties;
+    final Deque<SpoolSegment> segments = new ArrayDeque<>();
+
+    final Counter appendedCounter;
+    final Counter rejectedCounter;
+
+    Path directory;
+    int segmentSize;
+    long nextSegmentId;
+
+    // -- Позиция чтения внутри первого сегмента
+    int readPosition;
+
+    volatile long pendingRecords;
+    volatile long pendingBytes;
+
+    public DiskSpool(SpoolProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.appendedCounter = Counter.builder("collector.spool.appended")
+                .description("Сообщения, сохранённые в спул")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("collector.spool.rejected")
+                .description("Сообщения, потерянные из-за переполнения спула")
+                .register(meterRegistry);
+        Gauge.builder("collector.spool.records", this, spool -> spool.pendingRecords)
+                .description("Неотправленные сообщения в спуле")
+                .register(meterRegistry);
+        Gauge.builder("collector.spool.size", this, spool -> spool.pendingBytes)
+                .baseUnit("bytes")
+                .description("Объём неотправленных данных в спуле")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        if (!properties.isEnabled()) {
+            log.info("Дисковый спул отключён");
+            return;
+        }
+
+        long configuredSize = properties.getSegmentSize().toBytes();
+        if (configuredSize <= SpoolSegment.HEADER_SIZE || configuredSize > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Недопустимый размер сегмента спула: " + properties.getSegmentSize());
+        }
+        segmentSize = (int) configuredSize;
+        directory = Path.of(properties.getDirectory());
+        Files.createDirectories(directory);
+
+        long[] cursor = readCursor();
+        List<Long> ids = listSegmentIds();
+
+        for (Long id : ids) {
+            Path path = segmentPath(id);
+            if (id < cursor[0]) {
+                Files.deleteIfExists(path); // -- Сегмент уже полностью отправлен
+                continue;
+            }
+            segments.addLast(SpoolSegment.open(path, id, segmentSize));
+        }
+
+        SpoolSegment head = segments.peekFirst();
+        readPosition = head != null && head.getId() == cursor[0]
+                ? (int) Math.min(cursor[1], head.getWritePosition())
+                : 0;
+        nextSegmentId = Math.max(cursor[0], ids.isEmpty() ? 0 : ids.getLast()) + 1;
+
+        recountPending();
+        log.info("Дисковый спул открыт: каталог={}, сегментов={}, неотправленных сообщений={}",
+                directory, segments.size(), pendingRecords);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public boolean isEmpty() {
+        return pendingRecords == 0;
+    }
+
+    /**
+     * Сохраняет сообщение в спул. Возвращает false, если спул выключен или достиг ограничения по диску.
+     */
+    public synchronized boolean append(byte[] payload) {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+        if (payload.length + SpoolSegment.HEADER_SIZE > segmentSize) {
+            log.error("Сообщение размером {} байт не помещается в сегмент спула", payload.length);
+            rejectedCounter.increment();
+            return false;
+        }
+
+        try {
+            SpoolSegment tail = segments.peekLast();
+            if (tail == null || !tail.hasRoom(payload.length)) {
+                // -- Полностью отправленные сегменты освобождаются до проверки лимита и в него не входят
+                if (pendingRecords == 0) {
+                    while (!segments.isEmpty()) {
+                        deleteSegment(segments.pollFirst());
+                    }
+                    readPosition = 0;
+                }
+                if (segments.size() >= properties.getMaxSegments()) {
+                    log.error("Спул переполнен: достигнут лимит в {} сегментов", properties.getMaxSegments());
+                    rejectedCounter.increment();
+                    return false;
+                }
+                if (!segments.isEmpty()) {
+                    segments.peekLast().force();
+                }
+                tail = SpoolSegment.open(segmentPath(nextSegmentId), nextSegmentId, segmentSize);
+                nextSegmentId++;
+                segments.addLast(tail);
+            }
+
+            tail.append(payload);
+            if (properties.isForceOnAppend()) {
+                tail.force();
+            }
+        } catch (IOException e) {
+            log.error("Не удалось записать сообщение в спул: {}", e.getMessage());
+            rejectedCounter.increment();
+            return false;
+        }
+
+        pendingRecords++;
+        pendingBytes += payload.length;
+        appendedCounter.increment();
+        return true;
+    }
+
+    /**
+     * Возвращает до maxRecords самых старых неотправленных сообщений, не сдвигая позицию чтения.
+     */
+    public synchronized List<byte[]> peek(int maxRecords) {
+        List<byte[]> batch = new ArrayList<>();
+        int position = readPosition;
+
+        for (SpoolSegment segment : segments) {
+            byte[] payload;
+            while (batch.size() < maxRecords && (payload = segment.read(position)) != null) {
+                batch.add(payload);
+                position = segment.nextPosition(position);
+            }
+            if (batch.size() == maxRecords) {
+                break;
+            }
+            position = 0;
+        }
+        return batch;
+    }
+
+    /**
+     * Подтверждает отправку count первых сообщений: сдвигает позицию чтения и удаляет пройденные сегменты.
+     */
+    public synchronized void commit(int count) {
+        int remaining = count;
+
+        while (remaining > 0 && !segments.isEmpty()) {
+            SpoolSegment head = segments.peekFirst();
+            byte[] payload = head.read(readPosition);
+
+            if (payload == null) {
+                if (head == segments.peekLast()) {
+                    break;
+                }
+                deleteSegment(segments.pollFirst());
+                readPosition = 0;
+                continue;
+            }
+
+            readPosition = head.nextPosition(readPosition);
+            pendingRecords--;
+            pendingBytes -= payload.length;
+            remaining--;
+        }
+
+        // -- Полностью вычитанные сегменты, кроме текущего сегмента записи, больше не нужны
+        while (segments.size() > 1 && segments.peekFirst().read(readPosition) == null) {
+            deleteSegment(segments.pollFirst());
+            readPosition = 0;
+        }
+
+        writeCursor();
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        writeCursor();
+        for (SpoolSegment segment : segments) {
+            try {
+                segment.force();
+                segment.close();
+            } catch (IOException e) {
+                log.warn("Ошибка при закрытии сегмента спула {}: {}", segment.getPath(), e.getMessage());
+            }
+        }
+        segments.clear();
+    }
+
+    private void recountPending() {
+        long records = 0;
+        long bytes = 0;
+        int position = readPosition;
+
+        for (SpoolSegment segment : segments) {
+            byte[] payload;
+            while ((payload = segment.read(position)) != null) {
+                records++;
+                bytes += payload.length;
+                position = segment.nextPosition(position);
+            }
+            position = 0;
+        }
+
+        pendingRecords = records;
+        pendingBytes = bytes;
+    }
+
+    private void deleteSegment(SpoolSegment segment) {
+        try {
+            segment.delete();
+        } catch (IOException e) {
+            log.warn("Не удалось удалить сегмент спула {}: {}", segment.getPath(), e.getMessage());
+        }
+    }
+
+    private List<Long> listSegmentIds() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long id) {
+        return directory.resolve(String.format("%020d%s", id, SEGMENT_SUFFIX));
+    }
+
+    // -- Курсор: [id сегмента][позиция чтения]
+    private long[] readCursor() throws IOException {
+        Path path = directory.resolve(CURSOR_FILE);
+        if (!Files.exists(path)) {
+            return new long[]{0, 0};
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (buffer.remaining() < 2 * Long.BYTES) {
+            log.warn("Файл курсора спула повреждён, чтение начнётся с первого сегмента");
+            return new long[]{0, 0};
+        }
+        return new long[]{buffer.getLong(), buffer.getLong()};
+    }
+
+    private void writeCursor() {
+        SpoolSegment head = segments.peekFirst();
+        long segmentId = head != null ? head.getId() : nextSegmentId;
+        long position = head != null ? readPosition : 0;
+
+        ByteBuffer buffer = ByteBuffer.allocate(2 * Long.BYTES)
+                .putLong(segmentId)
+                .putLong(position);
+        Path tmp = directory.resolve(CURSOR_FILE + ".tmp");
+
+        try {
+            Files.write(tmp, buffer.array());
+            Files.move(tmp, directory.resolve(CURSOR_FILE),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось сохранить позицию чтения спула", e);
+        }
+    }
+}
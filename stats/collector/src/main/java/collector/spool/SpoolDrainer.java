@@ -0,0 +1,110 @@
+package collector.spool;
+
+import collector.kafka.config.StatsKafkaProducerConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.ewm.stats.avro.UserActionAvro;
+import ru.practicum.kafka.deserializer.UserActionAvroDeserializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Фоновая отправка накопленных в спуле сообщений в Kafka в порядке их записи.
+ */
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class SpoolDrainer {
+    DiskSpool spool;
+    SpoolProperties properties;
+    KafkaTemplate<String, Object> kafkaTemplate;
+    StatsKafkaProducerConfig config;
+    UserActionAvroDeserializer deserializer = new UserActionAvroDeserializer();
+    Counter replayedCounter;
+
+    public SpoolDrainer(DiskSpool spool,
+                        SpoolProperties properties,
+                        KafkaTemplate<String, Object> kafkaTemplate,
+                        StatsKafkaProducerConfig config,
+                        MeterRegistry meterRegistry) {
+        this.spool = spool;
+        this.properties = properties;
+        this.kafkaTemplate = kafkaTemplate;
+        this.config = config;
+        this.replayedCounter = Counter.builder("collector.spool.replayed")
+                .description("Сообщения, повторно отправленные из спула в Kafka")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "#{@spoolProperties.drainInterval.toMillis()}")
+    public void drain() {
+        if (!spool.isEnabled() || spool.isEmpty()) {
+            return;
+        }
+
+        List<byte[]> batch;
+        while (!(batch = spool.peek(properties.getDrainBatchSize())).isEmpty()) {
+            int sent = send(batch);
+            if (sent > 0) {
+                spool.commit(sent);
+                replayedCounter.increment(sent);
+                log.info("Из спула повторно отправлено сообщений: {}", sent);
+            }
+            if (sent < batch.size()) {
+                return; // -- Kafka всё ещё недоступна, попробуем в следующий раз
+            }
+        }
+    }
+
+    // -- Возвращает количество сообщений с начала пачки, которые Kafka подтвердила
+    private int send(List<byte[]> batch) {
+        String topic = config.getUserActionTopic();
+        List<CompletableFuture<SendResult<String, Object>>> futures = new ArrayList<>(batch.size());
+
+        try {
+            for (byte[] payload : batch) {
+                UserActionAvro userAction = deserialize(topic, payload);
+                futures.add(userAction == null
+                        ? CompletableFuture.completedFuture(null)
+                        : kafkaTemplate.send(topic, userAction));
+            }
+        } catch (Exception e) {
+            log.warn("Не удалось передать сообщения из спула в Kafka: {}", e.getMessage());
+        }
+
+        int confirmed = 0;
+        for (CompletableFuture<SendResult<String, Object>> future : futures) {
+            try {
+                future.get(properties.getSendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+                confirmed++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.warn("Kafka не подтвердила сообщение из спула: {}", e.getMessage());
+                break;
+            }
+        }
+        return confirmed;
+    }
+
+    private UserActionAvro deserialize(String topic, byte[] payload) {
+        try {
+            return deserializer.deserialize(topic, payload);
+        } catch (Exception e) {
+            // -- Повреждённую запись пропускаем, иначе она навсегда остановит отправку
+            log.error("Повреждённая запись в спуле пропущена: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package collector.spool;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "collector.spool") // -- Настройки дискового спула для недоставленных действий
+@Getter
+@Setter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SpoolProperties {
+    // -- Если выключен, сообщения, не принятые Kafka, только логируются (прежнее поведение)
+    boolean enabled = true;
+
+    String directory = "/tmp/collector-spool";
+
+    // -- Размер одного сегмента; сегмент целиком отображается в память
+    DataSize segmentSize = DataSize.ofMegabytes(16);
+
+    // -- Ограничение на диск: segmentSize * maxSegments
+    int maxSegments = 64;
+
+    int drainBatchSize = 500;
+
+    // -- Период фоновой отправки накопленных сообщений
+    Duration drainInterval = Duration.ofSeconds(1);
+
+    // -- Очередь записей в спул из колбэков продюсера; при переполнении сообщение теряется
+    int appendQueueCapacity = 10_000;
+
+    Duration sendTimeout = Duration.ofSeconds(10);
+
+    // -- Сбрасывать страницы на диск после каждой записи (дороже, но переживает падение ОС)
+    boolean forceOnAppend = false;
+
+    public void setMaxSegments(int maxSegments) {
+        if (maxSegments < 1) {
+            throw new IllegalArgumentException("collector.spool.max-segments должен быть не меньше 1");
+        }
+        this.maxSegments = maxSegments;
+    }
+}
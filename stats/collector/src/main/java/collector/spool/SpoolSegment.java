@@ -0,0 +1,132 @@
+package collector.spool;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Сегмент спула: файл фиксированного размера, отображённый в память.
+ * Формат записи: [длина: int][crc32c: int][данные]. Длина пишется последней,
+ * поэтому недописанная при падении запись не проходит проверку и отбрасывается при восстановлении.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+final class SpoolSegment implements Closeable {
+    static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+    @Getter
+    final long id;
+    @Getter
+    final Path path;
+    final FileChannel channel;
+    final MappedByteBuffer buffer;
+    final int capacity;
+
+    @Getter
+    int writePosition;
+
+    private SpoolSegment(long id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.id = id;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = buffer.capacity();
+    }
+
+    static SpoolSegment open(Path path, long id, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // -- Существующий сегмент отображаем целиком, даже если размер в настройках поменялся
+        long size = Math.max(channel.size(), capacity);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+        SpoolSegment segment = new SpoolSegment(id, path, channel, buffer);
+        segment.writePosition = segment.recover();
+        return segment;
+    }
+
+    boolean hasRoom(int payloadLength) {
+        return writePosition + HEADER_SIZE + payloadLength <= capacity;
+    }
+
+    void append(byte[] payload) {
+        int position = writePosition;
+        int next = position + HEADER_SIZE + payload.length;
+
+        buffer.put(position + HEADER_SIZE, payload);
+        buffer.putInt(position + Integer.BYTES, checksum(position + HEADER_SIZE, payload.length));
+        if (next + HEADER_SIZE <= capacity) {
+            buffer.putInt(next, 0); // -- Затираем возможный мусор после недописанной ранее записи
+        }
+        buffer.putInt(position, payload.length);
+
+        writePosition = next;
+    }
+
+    /**
+     * Возвращает данные записи по смещению или null, если записей дальше нет.
+     */
+    byte[] read(int position) {
+        if (position >= writePosition) {
+            return null;
+        }
+
+        int length = buffer.getInt(position);
+        byte[] payload = new byte[length];
+        buffer.get(position + HEADER_SIZE, payload);
+        return payload;
+    }
+
+    int nextPosition(int position) {
+        return position + HEADER_SIZE + buffer.getInt(position);
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // -- Проходим по записям с начала файла до первой пустой или повреждённой
+    private int recover() {
+        int position = 0;
+
+        while (position + HEADER_SIZE <= capacity) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + HEADER_SIZE + length > capacity) {
+                break;
+            }
+            if (buffer.getInt(position + Integer.BYTES) != checksum(position + HEADER_SIZE, length)) {
+                break;
+            }
+            position += HEADER_SIZE + length;
+        }
+
+        if (position + HEADER_SIZE <= capacity) {
+            buffer.putInt(position, 0);
+        }
+        return position;
+    }
+
+    private int checksum(int position, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(position, length));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,152 @@
+package ru.practicum.kafka.benchmark;
+
+import org.apache.avro.specific.SpecificRecordBase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.ewm.stats.avro.ActionTypeAvro;
+import ru.practicum.ewm.stats.avro.EventSimilarityBatchAvro;
+import ru.practicum.ewm.stats.avro.SimilarityEntryAvro;
+import ru.practicum.ewm.stats.avro.UserActionAvro;
+import ru.practicum.kafka.deserializer.BaseAvroDeserializer;
+import ru.practicum.kafka.deserializer.EventSimilarityBatchAvroDeserializer;
+import ru.practicum.kafka.deserializer.UserActionAvroDeserializer;
+import ru.practicum.kafka.serializer.GeneralAvroSerializer;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение прежней и текущей сериализации Avro на самых нагруженных топиках:
+ * одиночное действие пользователя и пачка оценок сходства.
+ * Аллокации на операцию видны с профилировщиком gc: java -jar target/avro-benchmarks.jar -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class AvroSerdeBenchmark {
+    private static final String TOPIC = "benchmark";
+
+    @Param({"USER_ACTION", "SIMILARITY_BATCH"})
+    Payload payload;
+
+    SpecificRecordBase record;
+    byte[] bytes;
+    LegacyAvroSerde.Deserializer<? extends SpecificRecordBase> legacyDeserializer;
+    BaseAvroDeserializer<? extends SpecificRecordBase> deserializer;
+    GeneralAvroSerializer serializer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        record = payload.record();
+        serializer = new GeneralAvroSerializer();
+        bytes = serializer.serialize(TOPIC, record);
+        legacyDeserializer = LegacyAvroSerde.deserializer(record.getSchema());
+        deserializer = payload.deserializer();
+    }
+
+    @Benchmark
+    public byte[] serializeLegacy() {
+        return LegacyAvroSerde.serialize(record);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(TOPIC, record);
+    }
+
+    @Benchmark
+    public Object deserializeLegacy() {
+        return legacyDeserializer.deserialize(bytes);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return deserializer.deserialize(TOPIC, bytes);
+    }
+
+    @Benchmark
+    public Object deserializeHeapByteBuffer(BufferState buffers) {
+        return deserializer.deserialize(TOPIC, null, buffers.heap.duplicate());
+    }
+
+    @Benchmark
+    public Object deserializeDirectByteBuffer(BufferState buffers) {
+        return deserializer.deserialize(TOPIC, null, buffers.direct.duplicate());
+    }
+
+    @State(Scope.Thread)
+    public static class BufferState {
+        ByteBuffer heap;
+        ByteBuffer direct;
+
+        @Setup(Level.Trial)
+        public void setUp(AvroSerdeBenchmark benchmark) {
+            heap = ByteBuffer.wrap(benchmark.bytes);
+            direct = ByteBuffer.allocateDirect(benchmark.bytes.length).put(benchmark.bytes).flip();
+        }
+    }
+
+    public enum Payload {
+        USER_ACTION {
+            @Override
+            SpecificRecordBase record() {
+                return UserActionAvro.newBuilder()
+                        .setUserId(42L)
+                        .setEventId(1_000_042L)
+                        .setActionType(ActionTypeAvro.LIKE)
+                        .setTimestamp(Instant.now())
+                        .build();
+            }
+
+            @Override
+            BaseAvroDeserializer<? extends SpecificRecordBase> deserializer() {
+                return new UserActionAvroDeserializer();
+            }
+        },
+        // -- Пачка из 200 оценок: типичный размер сообщения агрегатора для популярного события
+        SIMILARITY_BATCH {
+            @Override
+            SpecificRecordBase record() {
+                List<SimilarityEntryAvro> entries = new ArrayList<>(200);
+                for (int i = 0; i < 200; i++) {
+                    entries.add(SimilarityEntryAvro.newBuilder()
+                            .setEventDelta(1 + i % 7)
+                            .setScore(1.0 / (i + 1))
+                            .build());
+                }
+                return EventSimilarityBatchAvro.newBuilder()
+                        .setSourceEvent(1_000_042L)
+                        .setTimestamp(Instant.now())
+                        .setEntries(entries)
+                        .build();
+            }
+
+            @Override
+            BaseAvroDeserializer<? extends SpecificRecordBase> deserializer() {
+                return new EventSimilarityBatchAvroDeserializer();
+            }
+        };
+
+        abstract SpecificRecordBase record();
+
+        abstract BaseAvroDeserializer<? extends SpecificRecordBase> deserializer();
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.kafka.benchmark;
+
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.avro.specific.SpecificRecordBase;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Прежняя реализация сериализатора и десериализатора: новый writer, поток и энкодер на каждое сообщение,
+ * декодер без переиспользования. Оставлена только как точка отсчёта для сравнения.
+ */
+final class LegacyAvroSerde {
+    private static final EncoderFactory ENCODER_FACTORY = EncoderFactory.get();
+    private static final DecoderFactory DECODER_FACTORY = DecoderFactory.get();
+
+    private LegacyAvroSerde() {
+    }
+
+    static byte[] serialize(SpecificRecordBase data) {
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            DatumWriter<SpecificRecordBase> writer = new SpecificDatumWriter<>(data.getSchema());
+            BinaryEncoder encoder = ENCODER_FACTORY.binaryEncoder(out, null);
+            writer.write(data, encoder);
+            encoder.flush();
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static <T extends SpecificRecordBase> Deserializer<T> deserializer(Schema schema) {
+        return new Deserializer<>(new SpecificDatumReader<>(schema));
+    }
+
+    record Deserializer<T>(DatumReader<T> datumReader) {
+        T deserialize(byte[] data) {
+            try {
+                return datumReader.read(null, DECODER_FACTORY.binaryDecoder(data, null));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.kafka.batch;
+
+import ru.practicum.ewm.stats.avro.EventSimilarityAvro;
+import ru.practicum.ewm.stats.avro.EventSimilarityBatchAvro;
+import ru.practicum.ewm.stats.avro.SimilarityEntryAvro;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Упаковка оценок схожести одного события в пачку и обратно.
+ * В пачке хранится id второго события каждой пары; id отсортированы и записаны разностями,
+ * поэтому в zig-zag кодировке Avro большинство из них занимает один-два байта.
+ */
+public final class SimilarityBatchCodec {
+    private SimilarityBatchCodec() {
+    }
+
+    public static EventSimilarityBatchAvro encode(long sourceEvent, List<EventSimilarityAvro> similarities,
+                                                  Instant timestamp, boolean quantizeScores) {
+        int size = similarities.size();
+        long[] otherEvents = new long[size];
+        double[] scores = new double[size];
+        Integer[] order = new Integer[size];
+
+        for (int i = 0; i < size; i++) {
+            EventSimilarityAvro similarity = similarities.get(i);
+            if (similarity.getEventA() != sourceEvent && similarity.getEventB() != sourceEvent) {
+                throw new IllegalArgumentException(String.format(
+                        "Пара (%d, %d) не относится к событию %d",
+                        similarity.getEventA(), similarity.getEventB(), sourceEvent));
+            }
+            otherEvents[i] = similarity.getEventA() == sourceEvent ? similarity.getEventB() : similarity.getEventA();
+            scores[i] = similarity.getScore();
+            order[i] = i;
+        }
+        Arrays.sort(order, (left, right) -> Long.compare(otherEvents[left], otherEvents[right]));
+
+        List<SimilarityEntryAvro> entries = new ArrayList<>(size);
+        long previous = sourceEvent;
+        for (int index : order) {
+            Object score = quantizeScores ? (Object) (float) scores[index] : (Object) scores[index];
+            entries.add(new SimilarityEntryAvro(otherEvents[index] - previous, score));
+            previous = otherEvents[index];
+        }
+
+        return new EventSimilarityBatchAvro(sourceEvent, timestamp, entries);
+    }
+
+    public static List<EventSimilarityAvro> decode(EventSimilarityBatchAvro batch) {
+        long sourceEvent = batch.getSourceEvent();
+        List<EventSimilarityAvro> similarities = new ArrayList<>(batch.getEntries().size());
+
+        long otherEvent = sourceEvent;
+        for (SimilarityEntryAvro entry : batch.getEntries()) {
+            otherEvent += entry.getEventDelta();
+            double score = ((Number) entry.getScore()).doubleValue();
+
+            // -- Восстанавливаем упорядоченную пару, как в построчном формате: eventA < eventB
+            similarities.add(new EventSimilarityAvro(
+                    Math.min(sourceEvent, otherEvent),
+                    Math.max(sourceEvent, otherEvent),
+                    score,
+                    batch.getTimestamp()));
+        }
+        return similarities;
+    }
+}
@@ -3,19 +3,24 @@ package ru.practicum.kafka.deserializer;
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
 import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryDecoder;
 import org.apache.avro.io.DatumReader;
-import org.apache.avro.io.Decoder;
 import org.apache.avro.io.DecoderFactory;
 import org.apache.avro.specific.SpecificDatumReader;
 import org.apache.avro.specific.SpecificRecordBase;
 import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.common.serialization.Deserializer;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class BaseAvroDeserializer <T extends SpecificRecordBase> implements Deserializer<T> {
+    // -- Декодер и буфер для копирования из direct ByteBuffer переиспользуются внутри потока консьюмера
+    private static final ThreadLocal<DecoderState> DECODER_STATE = ThreadLocal.withInitial(DecoderState::new);
+
     DatumReader<T> datumReader;
 
     DecoderFactory decoderFactory;
@@ -35,13 +40,49 @@ public class BaseAvroDeserializer <T extends SpecificRecordBase> implements Dese
             return null;
         }
 
+        return read(topic, data, 0, data.length);
+    }
+
+    @Override
+    public T deserialize(String topic, Headers headers, ByteBuffer data) {
+        if (data == null) {
+            return null;
+        }
+
+        int length = data.remaining();
+        if (data.hasArray()) {
+            return read(topic, data.array(), data.arrayOffset() + data.position(), length);
+        }
+
+        byte[] scratch = DECODER_STATE.get().scratch(length);
+        data.duplicate().get(scratch, 0, length);
+        return read(topic, scratch, 0, length);
+    }
+
+    private T read(String topic, byte[] data, int offset, int length) {
+        DecoderState state = DECODER_STATE.get();
         try {
-            Decoder decoder = decoderFactory.binaryDecoder(data, null);
+            state.decoder = decoderFactory.binaryDecoder(data, offset, length, state.decoder);
 
-            return datumReader.read(null, decoder);
+            // -- Запись не переиспользуется: она уходит в слушатель и может храниться дольше одного вызова
+            return datumReader.read(null, state.decoder);
         } catch (IOException ex) {
             throw new SerializationException(String.format("Ошибка десериализации данных для топика [%s]. Data: %s",
-                    topic, Arrays.toString(data)), ex);
+                    topic, Arrays.toString(Arrays.copyOfRange(data, offset, offset + length))), ex);
+        }
+    }
+
+    private static final class DecoderState {
+        private static final int MAX_RETAINED_CAPACITY = 1 << 20;
+
+        BinaryDecoder decoder;
+        byte[] scratch = new byte[256];
+
+        byte[] scratch(int length) {
+            if (length > scratch.length || scratch.length > MAX_RETAINED_CAPACITY) {
+                scratch = new byte[Math.max(length, 256)];
+            }
+            return scratch;
         }
     }
-}
\ No newline at end of file
+}
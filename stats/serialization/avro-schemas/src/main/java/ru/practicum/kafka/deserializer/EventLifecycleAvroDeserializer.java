@@ -0,0 +1,9 @@
+package ru.practicum.kafka.deserializer;
+
+import ru.practicum.ewm.stats.avro.EventLifecycleAvro;
+
+public class EventLifecycleAvroDeserializer extends BaseAvroDeserializer<EventLifecycleAvro> {
+    public EventLifecycleAvroDeserializer() {
+        super(EventLifecycleAvro.getClassSchema());
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.kafka.deserializer;
+
+import ru.practicum.ewm.stats.avro.EventSimilarityBatchAvro;
+
+public class EventSimilarityBatchAvroDeserializer extends BaseAvroDeserializer<EventSimilarityBatchAvro> {
+    public EventSimilarityBatchAvroDeserializer() {
+        super(EventSimilarityBatchAvro.getClassSchema());
+    }
+}
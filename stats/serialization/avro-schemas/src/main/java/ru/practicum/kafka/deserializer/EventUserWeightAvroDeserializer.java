@@ -0,0 +1,9 @@
+package ru.practicum.kafka.deserializer;
+
+import ru.practicum.ewm.stats.avro.EventUserWeightAvro;
+
+public class EventUserWeightAvroDeserializer extends BaseAvroDeserializer<EventUserWeightAvro> {
+    public EventUserWeightAvroDeserializer() {
+        super(EventUserWeightAvro.getClassSchema());
+    }
+}
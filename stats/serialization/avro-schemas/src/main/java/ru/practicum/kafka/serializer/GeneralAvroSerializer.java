@@ -1,5 +1,6 @@
 package ru.practicum.kafka.serializer;
 
+import org.apache.avro.Schema;
 import org.apache.avro.io.BinaryEncoder;
 import org.apache.avro.io.DatumWriter;
 import org.apache.avro.io.EncoderFactory;
@@ -8,27 +9,44 @@ import org.apache.avro.specific.SpecificRecordBase;
 import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.common.serialization.Serializer;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @SuppressWarnings("unused")
 public class GeneralAvroSerializer implements Serializer<SpecificRecordBase> {
+    // -- DatumWriter не хранит состояния между вызовами, поэтому один экземпляр на схему делится всеми потоками
+    private static final Map<Schema, DatumWriter<SpecificRecordBase>> WRITERS = new ConcurrentHashMap<>();
+
+    // -- Буфер и энкодер переиспользуются внутри потока продюсера
+    private static final ThreadLocal<EncoderState> ENCODER_STATE = ThreadLocal.withInitial(EncoderState::new);
+
     private final EncoderFactory encoderFactory = EncoderFactory.get();
 
     @Override
     public byte[] serialize(String topic, SpecificRecordBase data) {
-        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            if (data != null) {
-                DatumWriter<SpecificRecordBase> writer = new SpecificDatumWriter<>(data.getSchema());
-                BinaryEncoder encoder = encoderFactory.binaryEncoder(out, null);
-                writer.write(data, encoder);
-                encoder.flush();
-                return out.toByteArray();
-            }
+        if (data == null) {
             return new byte[0];
+        }
+
+        EncoderState state = ENCODER_STATE.get();
+        try {
+            state.out.reset();
+            state.encoder = encoderFactory.binaryEncoder(state.out, state.encoder);
+            writerFor(data.getSchema()).write(data, state.encoder);
+            state.encoder.flush();
+            return state.out.toByteArray();
         } catch (IOException ex) {
             throw new SerializationException(String.format("Ошибка сериализации данных для топика [%s]", topic), ex);
         }
     }
-}
 
+    private static DatumWriter<SpecificRecordBase> writerFor(Schema schema) {
+        return WRITERS.computeIfAbsent(schema, SpecificDatumWriter::new);
+    }
+
+    private static final class EncoderState {
+        final ReusableByteArrayOutputStream out = new ReusableByteArrayOutputStream();
+        BinaryEncoder encoder;
+    }
+}
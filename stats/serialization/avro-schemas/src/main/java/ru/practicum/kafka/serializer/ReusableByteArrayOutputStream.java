@@ -0,0 +1,46 @@
+package ru.practicum.kafka.serializer;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Несинхронизированный растущий буфер для повторного использования в рамках одного потока.
+ * После сериализации слишком крупного сообщения буфер сжимается, чтобы поток не удерживал лишнюю память.
+ */
+public class ReusableByteArrayOutputStream extends OutputStream {
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int MAX_RETAINED_CAPACITY = 1 << 20;
+
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int size;
+
+    @Override
+    public void write(int b) {
+        ensureCapacity(size + 1);
+        buffer[size++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        ensureCapacity(size + length);
+        System.arraycopy(bytes, offset, buffer, size, length);
+        size += length;
+    }
+
+    public void reset() {
+        if (buffer.length > MAX_RETAINED_CAPACITY) {
+            buffer = new byte[INITIAL_CAPACITY];
+        }
+        size = 0;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(capacity, buffer.length << 1));
+        }
+    }
+}
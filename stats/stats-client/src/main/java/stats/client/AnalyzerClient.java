@@ -1,7 +1,18 @@
 package stats.client;
 
+import io.grpc.Deadline;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
 import net.devh.boot.grpc.client.inject.GrpcClient;
 import org.springframework.stereotype.Component;
 import ru.practicum.grpc.ewm.dashboard.analyzer.RecommendationsControllerGrpc;
@@ -10,27 +21,57 @@ import ru.practicum.grpc.ewm.dashboard.message.RecommendedEventProto;
 import ru.practicum.grpc.ewm.dashboard.message.SimilarEventsRequestProto;
 import ru.practicum.grpc.ewm.dashboard.message.UserPredictionsRequestProto;
 
-import java.util.Iterator;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Spliterator;
-import java.util.Spliterators;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
+/**
+ * Клиент анализатора: у каждого вызова есть дедлайн, число одновременных вызовов ограничено.
+ * При включённом hedging, если ответа нет дольше p95 задержки метода, уходит повторный запрос
+ * (балансировщик направит его на другую реплику); используется первый успешный ответ, второй вызов отменяется.
+ * Ошибки возвращаются как StatusRuntimeException, запасные значения выбирает вызывающая сторона.
+ */
 @Component
+@Slf4j
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class AnalyzerClient {
+    private static final long AWAIT_GRACE_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
 
     @GrpcClient("analyzer")
-    RecommendationsControllerGrpc.RecommendationsControllerBlockingStub controllerBlockingStub;
+    RecommendationsControllerGrpc.RecommendationsControllerStub controllerStub;
+
+    final AnalyzerClientProperties properties;
+    final Semaphore permits;
+    final Method recommendations;
+    final Method similarEvents;
+    final Method interactions;
+
+    public AnalyzerClient(AnalyzerClientProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.permits = new Semaphore(properties.getMaxConcurrentCalls());
+        this.recommendations = new Method("getRecommendationsForUser", meterRegistry);
+        this.similarEvents = new Method("getSimilarEvents", meterRegistry);
+        this.interactions = new Method("getInteractionsCount", meterRegistry);
+    }
 
     public Stream<RecommendedEventProto> getRecommendationsForUser(Long userId, Long maxResults) {
         final UserPredictionsRequestProto request = UserPredictionsRequestProto.newBuilder()
                 .setUserId(userId)
                 .setMaxResult(maxResults)
                 .build();
-        final Iterator<RecommendedEventProto> iterator = controllerBlockingStub.getRecommendationsForUser(request);
-        return asStream(iterator);
+        return execute(recommendations, properties.getRecommendationsDeadline(),
+                (stub, observer) -> stub.getRecommendationsForUser(request, observer)).stream();
     }
 
     public Stream<RecommendedEventProto> getSimilarEvents(Long eventId, Long userId, Long maxResults) {
@@ -39,22 +80,224 @@ public class AnalyzerClient {
                 .setUserId(userId)
                 .setMaxResult(maxResults)
                 .build();
-        final Iterator<RecommendedEventProto> iterator = controllerBlockingStub.getSimilarEvents(request);
-        return asStream(iterator);
+        return execute(similarEvents, properties.getSimilarEventsDeadline(),
+                (stub, observer) -> stub.getSimilarEvents(request, observer)).stream();
     }
 
     public Stream<RecommendedEventProto> getInteractionsCount(List<Long> eventIds) {
+        return getInteractionsCount(eventIds, properties.getInteractionsDeadline()).stream();
+    }
+
+    // -- Ответ вычитывается целиком, чтобы дедлайн покрывал и получение всех элементов потока
+    public List<RecommendedEventProto> getInteractionsCount(Collection<Long> eventIds, Duration deadline) {
         final InteractionsCountRequestProto request = InteractionsCountRequestProto.newBuilder()
                 .addAllEventId(eventIds)
                 .build();
-        final Iterator<RecommendedEventProto> iterator = controllerBlockingStub.getInteractionsCount(request);
-        return asStream(iterator);
+        return execute(interactions, deadline, (stub, observer) -> stub.getInteractionsCount(request, observer));
+    }
+
+    private List<RecommendedEventProto> execute(
+            Method method, Duration timeout,
+            BiConsumer<RecommendationsControllerGrpc.RecommendationsControllerStub,
+                    StreamObserver<RecommendedEventProto>> invocation) {
+        if (!permits.tryAcquire()) {
+            method.rejected.increment();
+            throw Status.RESOURCE_EXHAUSTED
+                    .withDescription("Превышен лимит одновременных запросов к анализатору: " + method.name)
+                    .asRuntimeException();
+        }
+
+        Deadline deadline = Deadline.after(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        Call call = new Call(method, deadline, invocation);
+        call.start();
+
+        if (properties.getHedging().isEnabled()) {
+            long delay = method.hedgeDelayNanos();
+            if (delay < deadline.timeRemaining(TimeUnit.NANOSECONDS)) {
+                CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS).execute(call::hedge);
+            }
+        }
+
+        return call.await();
+    }
+
+    /**
+     * Один логический вызов: основной запрос и, возможно, повторный с общим дедлайном.
+     */
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private class Call {
+        Method method;
+        Deadline deadline;
+        BiConsumer<RecommendationsControllerGrpc.RecommendationsControllerStub,
+                StreamObserver<RecommendedEventProto>> invocation;
+        long startNanos = System.nanoTime();
+        CompletableFuture<List<RecommendedEventProto>> result = new CompletableFuture<>();
+        Queue<ClientCallStreamObserver<?>> streams = new ConcurrentLinkedQueue<>();
+        AtomicInteger inFlight = new AtomicInteger();
+
+        Call(Method method, Deadline deadline,
+             BiConsumer<RecommendationsControllerGrpc.RecommendationsControllerStub,
+                     StreamObserver<RecommendedEventProto>> invocation) {
+            this.method = method;
+            this.deadline = deadline;
+            this.invocation = invocation;
+        }
+
+        // -- Разрешение на вызов уже получено; оно возвращается, когда вызов завершится
+        void start() {
+            inFlight.incrementAndGet();
+            send();
+        }
+
+        void hedge() {
+            if (result.isDone() || deadline.isExpired() || !permits.tryAcquire()) {
+                return;
+            }
+            if (!join()) {
+                permits.release();
+                return;
+            }
+            method.hedges.increment();
+            log.debug("Нет ответа анализатора дольше p95, отправлен повторный запрос: {}", method.name);
+            send();
+            // -- Ответ мог прийти между проверкой и отправкой: тогда повторный запрос не нужен
+            if (result.isDone()) {
+                cancelAll();
+            }
+        }
+
+        // -- Повторный запрос присоединяется, только пока есть незавершённые: после последней ошибки вызов закрыт
+        private boolean join() {
+            int current;
+            do {
+                current = inFlight.get();
+                if (current == 0) {
+                    return false;
+                }
+            } while (!inFlight.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        private void send() {
+            try {
+                invocation.accept(controllerStub.withDeadline(deadline), new Attempt());
+            } catch (RuntimeException e) {
+                permits.release();
+                failed(e);
+            }
+        }
+
+        List<RecommendedEventProto> await() {
+            try {
+                return result.get(deadline.timeRemaining(TimeUnit.NANOSECONDS) + AWAIT_GRACE_NANOS,
+                        TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof StatusRuntimeException statusException) {
+                    throw statusException;
+                }
+                throw Status.UNKNOWN.withCause(e.getCause()).asRuntimeException();
+            } catch (TimeoutException e) {
+                cancelAll();
+                throw Status.DEADLINE_EXCEEDED
+                        .withDescription("Анализатор не ответил вовремя: " + method.name)
+                        .asRuntimeException();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelAll();
+                throw Status.CANCELLED.withCause(e).asRuntimeException();
+            }
+        }
+
+        void completed(List<RecommendedEventProto> response) {
+            if (result.complete(response)) {
+                method.latency.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                // -- Проигравший запрос больше не нужен
+                cancelAll();
+            }
+        }
+
+        // -- Ошибка одного запроса не завершает вызов, пока другой ещё может ответить
+        void failed(Throwable error) {
+            if (inFlight.decrementAndGet() == 0) {
+                result.completeExceptionally(error instanceof StatusRuntimeException
+                        ? error
+                        : Status.fromThrowable(error).asRuntimeException());
+            }
+        }
+
+        void cancelAll() {
+            streams.forEach(stream -> stream.cancel("Получен ответ на другой запрос", null));
+        }
+
+        private class Attempt implements ClientResponseObserver<Object, RecommendedEventProto> {
+            final List<RecommendedEventProto> response = new ArrayList<>();
+
+            @Override
+            public void beforeStart(ClientCallStreamObserver<Object> requestStream) {
+                streams.add(requestStream);
+            }
+
+            @Override
+            public void onNext(RecommendedEventProto value) {
+                response.add(value);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                permits.release();
+                failed(t);
+            }
+
+            @Override
+            public void onCompleted() {
+                permits.release();
+                inFlight.decrementAndGet();
+                completed(response);
+            }
+        }
     }
 
-    private Stream<RecommendedEventProto> asStream(Iterator<RecommendedEventProto> iterator) {
-        return StreamSupport.stream(
-                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED),
-                false
-        );
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    private class Method {
+        final String name;
+        final Timer latency;
+        final Counter hedges;
+        final Counter rejected;
+        volatile long hedgeDelayNanos;
+        volatile long hedgeDelayRefreshedAt;
+
+        Method(String name, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.latency = Timer.builder("stats.client.analyzer.latency")
+                    .description("Задержка успешных вызовов анализатора с учётом повторных запросов")
+                    .tag("method", name)
+                    .publishPercentiles(0.95)
+                    .register(meterRegistry);
+            this.hedges = Counter.builder("stats.client.analyzer.hedges")
+                    .description("Повторные запросы к анализатору после задержки p95")
+                    .tag("method", name)
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("stats.client.analyzer.rejected")
+                    .description("Вызовы анализатора, отклонённые из-за лимита одновременных запросов")
+                    .tag("method", name)
+                    .register(meterRegistry);
+            this.hedgeDelayNanos = properties.getHedging().getMinDelay().toNanos();
+            this.hedgeDelayRefreshedAt = System.nanoTime();
+        }
+
+        // -- Снимок гистограммы дорогой, поэтому p95 пересчитывается не чаще refresh-interval
+        long hedgeDelayNanos() {
+            long now = System.nanoTime();
+            AnalyzerClientProperties.Hedging hedging = properties.getHedging();
+            if (now - hedgeDelayRefreshedAt > hedging.getRefreshInterval().toNanos()) {
+                hedgeDelayRefreshedAt = now;
+                long p95 = 0;
+                for (ValueAtPercentile value : latency.takeSnapshot().percentileValues()) {
+                    p95 = (long) value.value(TimeUnit.NANOSECONDS);
+                }
+                hedgeDelayNanos = Math.max(p95, hedging.getMinDelay().toNanos());
+            }
+            return hedgeDelayNanos;
+        }
     }
 }
@@ -0,0 +1,35 @@
+package stats.client;
+
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties("stats-client.analyzer")
+@Data
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class AnalyzerClientProperties {
+    // -- Дедлайны по методам; вызов с явным дедлайном его переопределяет
+    Duration recommendationsDeadline = Duration.ofSeconds(1);
+    Duration similarEventsDeadline = Duration.ofSeconds(1);
+    Duration interactionsDeadline = Duration.ofMillis(500);
+
+    // -- Одновременные вызовы, включая повторные; сверх лимита запрос сразу завершается RESOURCE_EXHAUSTED
+    int maxConcurrentCalls = 64;
+
+    Hedging hedging = new Hedging();
+
+    @Data
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Hedging {
+        boolean enabled = false;
+        // -- Повторный запрос уходит через p95 задержки метода, но не раньше min-delay
+        Duration minDelay = Duration.ofMillis(50);
+        // -- Как часто пересчитывается p95 для задержки повторного запроса
+        Duration refreshInterval = Duration.ofSeconds(10);
+    }
+}
@@ -0,0 +1,170 @@
+package stats.client;
+
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.grpc.ewm.dashboard.message.RecommendedEventProto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Рейтинги событий (сумма весов взаимодействий из анализатора), общие для всех запросов сервиса.
+ * Промахи загружаются одним пакетным запросом, параллельные промахи по одному id ждут одну загрузку.
+ * Записи старше refresh-after отдаются сразу, а обновляются в фоне пачками.
+ */
+@Component
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class RatingCache {
+    private static final double DEFAULT_RATING = 0.0;
+
+    AnalyzerClient analyzerClient;
+    RatingCacheProperties properties;
+    AsyncLoadingCache<Long, Double> cache;
+    // -- Свой пул для загрузок и фоновых обновлений: блокирующие gRPC-вызовы не занимают commonPool
+    ThreadPoolExecutor loaderExecutor;
+
+    // -- Ключи, ожидающие фонового обновления, и признак запланированной отправки пачки
+    Queue<PendingRefresh> refreshQueue = new ConcurrentLinkedQueue<>();
+    AtomicInteger refreshQueueSize = new AtomicInteger();
+    AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    public RatingCache(AnalyzerClient analyzerClient, RatingCacheProperties properties, MeterRegistry meterRegistry) {
+        this.analyzerClient = analyzerClient;
+        this.properties = properties;
+        AtomicInteger threadNumber = new AtomicInteger();
+        // -- При переполнении очереди загрузка выполняется в вызывающем потоке, а не теряется
+        this.loaderExecutor = new ThreadPoolExecutor(properties.getLoaderThreads(), properties.getLoaderThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getLoaderQueueCapacity()),
+                runnable -> new Thread(runnable, "rating-cache-loader-" + threadNumber.incrementAndGet()),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.cache = Caffeine.newBuilder()
+                .executor(loaderExecutor)
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .refreshAfterWrite(properties.getRefreshAfter())
+                .recordStats()
+                .buildAsync(new Loader());
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "stats.client.rating");
+        ExecutorServiceMetrics.monitor(meterRegistry, loaderExecutor, "stats.client.rating.loader");
+    }
+
+    @PreDestroy
+    public void close() {
+        loaderExecutor.shutdownNow();
+    }
+
+    // -- Ждёт только загрузки промахов; при ошибке анализатора бросает StatusRuntimeException
+    public Map<Long, Double> getAll(Collection<Long> eventIds) {
+        try {
+            return cache.getAll(eventIds).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof StatusRuntimeException statusException) {
+                throw statusException;
+            }
+            throw e;
+        }
+    }
+
+    public Map<Long, Double> getAllPresent(Collection<Long> eventIds) {
+        return cache.synchronous().getAllPresent(eventIds);
+    }
+
+    private Map<Long, Double> fetch(Collection<Long> eventIds) {
+        Map<Long, Double> ratings = new HashMap<>();
+        for (RecommendedEventProto proto : analyzerClient.getInteractionsCount(eventIds, properties.getLoadDeadline())) {
+            ratings.put(proto.getEventId(), (double) proto.getScore());
+        }
+        // -- Событие без взаимодействий тоже кэшируется, иначе каждый запрос будет промахом
+        eventIds.forEach(eventId -> ratings.putIfAbsent(eventId, DEFAULT_RATING));
+        return ratings;
+    }
+
+    private void scheduleFlush(Executor executor) {
+        if (refreshQueueSize.get() >= properties.getBatchSize()) {
+            executor.execute(this::flush);
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            CompletableFuture.delayedExecutor(properties.getBatchDelay().toNanos(), TimeUnit.NANOSECONDS, executor)
+                    .execute(this::flush);
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        List<PendingRefresh> batch = new ArrayList<>(properties.getBatchSize());
+        PendingRefresh pending;
+        while ((pending = refreshQueue.poll()) != null) {
+            refreshQueueSize.decrementAndGet();
+            batch.add(pending);
+            if (batch.size() == properties.getBatchSize()) {
+                refresh(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            refresh(batch);
+        }
+    }
+
+    // -- При ошибке обновления в кэше остаётся прежнее значение до истечения ttl
+    private void refresh(List<PendingRefresh> batch) {
+        try {
+            Map<Long, Double> ratings = fetch(batch.stream().map(PendingRefresh::eventId).toList());
+            batch.forEach(item -> item.future().complete(ratings.get(item.eventId())));
+        } catch (RuntimeException e) {
+            log.warn("Не удалось обновить рейтинг {} событий: {}", batch.size(), e.getMessage());
+            batch.forEach(item -> item.future().completeExceptionally(e));
+        }
+    }
+
+    private record PendingRefresh(Long eventId, CompletableFuture<Double> future) {
+    }
+
+    private class Loader implements AsyncCacheLoader<Long, Double> {
+        @Override
+        public CompletableFuture<Double> asyncLoad(Long eventId, Executor executor) {
+            return asyncLoadAll(Set.of(eventId), executor).thenApply(ratings -> ratings.get(eventId));
+        }
+
+        @Override
+        public CompletableFuture<Map<Long, Double>> asyncLoadAll(Set<? extends Long> eventIds, Executor executor) {
+            List<Long> ids = List.copyOf(eventIds);
+            return CompletableFuture.supplyAsync(() -> fetch(ids), executor);
+        }
+
+        @Override
+        public CompletableFuture<Double> asyncReload(Long eventId, Double oldValue, Executor executor) {
+            CompletableFuture<Double> future = new CompletableFuture<>();
+            refreshQueue.add(new PendingRefresh(eventId, future));
+            refreshQueueSize.incrementAndGet();
+            scheduleFlush(executor);
+            return future;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package stats.client;
+
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties("stats-client.rating-cache")
+@Data
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class RatingCacheProperties {
+    long maximumSize = 50_000;
+    // -- Запись удаляется через ttl после загрузки; до этого она отдаётся даже если анализатор недоступен
+    Duration ttl = Duration.ofMinutes(10);
+    // -- После refresh-after запись ещё отдаётся сразу, но в фоне перезапрашивается
+    Duration refreshAfter = Duration.ofSeconds(30);
+    // -- Фоновые обновления копятся до batch-size или batch-delay и уходят одним запросом
+    int batchSize = 500;
+    Duration batchDelay = Duration.ofMillis(20);
+    Duration loadDeadline = Duration.ofMillis(500);
+    // -- Пул загрузок: число потоков ограничивает параллельные запросы к анализатору
+    int loaderThreads = 4;
+    int loaderQueueCapacity = 1_000;
+}